@@ -0,0 +1,160 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.view.ContextThemeWrapper;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class CycleLayoutManagerTest {
+
+    private static final int SIZE = 600;
+    private static final int ITEMS_COUNT = 30;
+    private static final double DELTA = 1e-3;
+
+    private RecyclerView mRecyclerView;
+    private CycleLayoutManager mLayoutManager;
+    private RecyclerMenuAdapter mAdapter;
+    private List<CycleMenuItem> mItems;
+
+    /**
+     * Is run on the main thread with the tests annotated with {@link UiThreadTest}.
+     */
+    @Before
+    public void setUp() {
+        Context context = new ContextThemeWrapper(InstrumentationRegistry.getTargetContext(), R.style.Theme_AppCompat_Light);
+        mRecyclerView = new RecyclerView(context);
+        mLayoutManager = new CycleLayoutManager(context, CycleMenuWidget.CORNER.RIGHT_TOP);
+        mLayoutManager.setScrollEnabled(true);
+        mAdapter = new RecyclerMenuAdapter();
+        mItems = createItems(ITEMS_COUNT);
+        mAdapter.setItems(mItems);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setAdapter(mAdapter);
+        layout();
+    }
+
+    @Test
+    @UiThreadTest
+    public void smoothScrollToPosition_withoutChildren_isAppliedWithNextLayout() {
+        mLayoutManager.setItemsReleased(true);
+        layout();
+        assertEquals(0, mLayoutManager.getChildCount());
+
+        mRecyclerView.smoothScrollToPosition(7);
+        mLayoutManager.setItemsReleased(false);
+        layout();
+
+        assertNotNull(mLayoutManager.findViewByPosition(7));
+        assertEquals(0, mLayoutManager.getRotationToPosition(7), DELTA);
+    }
+
+    @Test
+    @UiThreadTest
+    public void releasedItems_areRestoredFromTheSameFirstItem() {
+        mRecyclerView.scrollBy(0, -300);
+        layout();
+        int position = mLayoutManager.getCurrentPosition();
+        double angleOffset = mLayoutManager.getCurrentItemsAngleOffset();
+        double snapRotation = mLayoutManager.getSnapRotation(0);
+        assertTrue(position > 0);
+
+        mLayoutManager.setItemsReleased(true);
+        layout();
+        assertEquals(0, mLayoutManager.getChildCount());
+        mLayoutManager.setItemsReleased(false);
+        layout();
+
+        assertEquals(position, mLayoutManager.getCurrentPosition());
+        assertEquals(angleOffset, mLayoutManager.getCurrentItemsAngleOffset(), DELTA);
+        //slots of the items are not moved
+        assertEquals(snapRotation, mLayoutManager.getSnapRotation(0), DELTA);
+    }
+
+    @Test
+    @UiThreadTest
+    public void payloadChange_keepsRotationAndOtherItemViews() {
+        mRecyclerView.scrollBy(0, -300);
+        layout();
+        int position = mLayoutManager.getCurrentPosition();
+        double angleOffset = mLayoutManager.getCurrentItemsAngleOffset();
+        assertTrue(position > 0);
+        int childCount = mLayoutManager.getChildCount();
+        View[] children = new View[childCount];
+        int[] positions = new int[childCount];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = mLayoutManager.getChildAt(i);
+            positions[i] = mLayoutManager.getPosition(children[i]);
+        }
+        int changedPosition = positions[childCount / 2];
+
+        List<CycleMenuItem> items = new ArrayList<>(mItems);
+        Drawable icon = new ColorDrawable(Color.BLUE);
+        items.set(changedPosition, new CycleMenuItem(mItems.get(changedPosition).getId(), icon));
+        mAdapter.setItems(items);
+        layout();
+
+        assertEquals(position, mLayoutManager.getCurrentPosition());
+        assertEquals(angleOffset, mLayoutManager.getCurrentItemsAngleOffset(), DELTA);
+        for (int i = 0; i < childCount; i++) {
+            //the changed view is rebound with payload, the others are kept at their positions
+            assertSame(children[i], mLayoutManager.findViewByPosition(positions[i]));
+        }
+        assertSame(icon, ((ImageView) mLayoutManager.findViewByPosition(changedPosition)).getDrawable());
+    }
+
+    @Test
+    @UiThreadTest
+    public void subPixelScrollDisabled_afterScroll_keepsItemsInPlace() {
+        mLayoutManager.setSubPixelScrollEnabled(true);
+        layout();
+        mRecyclerView.scrollBy(0, -300);
+        View first = mLayoutManager.getChildAt(0);
+        int position = mLayoutManager.getPosition(first);
+        float centerX = first.getX() + first.getWidth() / 2f;
+        float centerY = first.getY() + first.getHeight() / 2f;
+        assertTrue(position > 0);
+
+        mLayoutManager.setSubPixelScrollEnabled(false);
+        layout();
+
+        first = mLayoutManager.getChildAt(0);
+        assertEquals(position, mLayoutManager.getPosition(first));
+        //views are laid out at the rounded centers
+        assertEquals(centerX, first.getX() + first.getWidth() / 2f, 1);
+        assertEquals(centerY, first.getY() + first.getHeight() / 2f, 1);
+    }
+
+    private void layout() {
+        int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mRecyclerView.measure(spec, spec);
+        mRecyclerView.layout(0, 0, SIZE, SIZE);
+    }
+
+    private static List<CycleMenuItem> createItems(int count) {
+        List<CycleMenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new CycleMenuItem(i + 1, new ColorDrawable(Color.RED)));
+        }
+        return items;
+    }
+}
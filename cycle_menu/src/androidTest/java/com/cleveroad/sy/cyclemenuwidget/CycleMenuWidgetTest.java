@@ -0,0 +1,58 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.view.ContextThemeWrapper;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewOutlineProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class CycleMenuWidgetTest {
+
+    @Test
+    @UiThreadTest
+    public void createRecycledViewPool_prewarmsItemViews() {
+        RecyclerView.RecycledViewPool pool = CycleMenuWidget.createRecycledViewPool(createContext(), 5);
+
+        assertEquals(5, pool.getRecycledViewCount(0));
+        RecyclerView.ViewHolder holder = pool.getRecycledView(0);
+        assertTrue(holder instanceof RecyclerMenuAdapter.ItemHolder);
+        assertTrue(holder.itemView.getLayoutParams() instanceof CycleLayoutManager.LayoutParams);
+    }
+
+    @Test
+    @UiThreadTest
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public void elevationShadowRenderMode_restoresUserOutlineAndElevation() {
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP);
+        CycleMenuWidget widget = new CycleMenuWidget(createContext());
+        ViewOutlineProvider outlineProvider = ViewOutlineProvider.BOUNDS;
+        widget.setOutlineProvider(outlineProvider);
+        widget.setElevation(7);
+
+        widget.setShadowRenderMode(CycleMenuWidget.SHADOW_RENDER_MODE.GRADIENT);
+        assertSame(outlineProvider, widget.getOutlineProvider());
+        assertEquals(7, widget.getElevation(), 0);
+
+        widget.setShadowRenderMode(CycleMenuWidget.SHADOW_RENDER_MODE.ELEVATION);
+        widget.setShadowRenderMode(CycleMenuWidget.SHADOW_RENDER_MODE.ATLAS);
+        assertSame(outlineProvider, widget.getOutlineProvider());
+        assertEquals(7, widget.getElevation(), 0);
+    }
+
+    private static Context createContext() {
+        return new ContextThemeWrapper(InstrumentationRegistry.getTargetContext(), R.style.Theme_AppCompat_Light);
+    }
+}
@@ -0,0 +1,167 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.app.Instrumentation;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class RecyclerMenuAdapterTest {
+
+    private static final int ITEMS_COUNT = 5;
+    private static final int ASYNC_ITEMS_COUNT = 8;
+
+    private final Instrumentation mInstrumentation = InstrumentationRegistry.getInstrumentation();
+    private final CountingObserver mObserver = new CountingObserver();
+    private final CycleMenuItem mAddedItem = new CycleMenuItem(100, new ColorDrawable(Color.BLUE));
+    private final boolean[] mCommitted = new boolean[1];
+    private RecyclerMenuAdapter mAdapter;
+    private List<CycleMenuItem> mItems;
+
+    @Before
+    public void setUp() {
+        //diff is calculated at once, but the result is still applied with the main thread handler
+        RecyclerMenuAdapter.setDiffExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        mItems = createItems(ASYNC_ITEMS_COUNT);
+        mAdapter = new RecyclerMenuAdapter();
+        mAdapter.setItems(mItems.subList(0, ITEMS_COUNT));
+        mAdapter.registerAdapterDataObserver(mObserver);
+        mObserver.mItemCount = mAdapter.getItemCount();
+    }
+
+    @After
+    public void tearDown() {
+        RecyclerMenuAdapter.setDiffExecutor(null);
+    }
+
+    @Test
+    public void asyncItems_landingAfterChangeInUpdate_areDiscarded() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setItemsAsync();
+                mAdapter.beginUpdate();
+                mAdapter.addItem(mAddedItem);
+            }
+        });
+        //background result is handled before this block
+        endUpdate();
+
+        assertFalse(mCommitted[0]);
+        assertEquals(ITEMS_COUNT + 1, mAdapter.getItemCount());
+        assertEquals(mAddedItem.getId(), mAdapter.getItemId(ITEMS_COUNT));
+        assertNotifiedOnce();
+    }
+
+    @Test
+    public void asyncItems_landingInUpdateWithoutChanges_areNotifiedWithUpdate() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setItemsAsync();
+                mAdapter.beginUpdate();
+            }
+        });
+        //background result is handled before this block
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mAdapter.addItem(mAddedItem);
+            }
+        });
+        endUpdate();
+
+        assertTrue(mCommitted[0]);
+        assertEquals(ASYNC_ITEMS_COUNT + 1, mAdapter.getItemCount());
+        assertEquals(mAddedItem.getId(), mAdapter.getItemId(ASYNC_ITEMS_COUNT));
+        assertNotifiedOnce();
+    }
+
+    private void setItemsAsync() {
+        mAdapter.setItemsAsync(mItems, new Runnable() {
+            @Override
+            public void run() {
+                mCommitted[0] = true;
+            }
+        });
+    }
+
+    private void endUpdate() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mAdapter.endUpdate();
+            }
+        });
+    }
+
+    private void assertNotifiedOnce() {
+        assertEquals(1, mObserver.mNotificationsCount);
+        assertEquals(mAdapter.getItemCount(), mObserver.mItemCount);
+    }
+
+    private static List<CycleMenuItem> createItems(int count) {
+        List<CycleMenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new CycleMenuItem(i + 1, new ColorDrawable(Color.RED)));
+        }
+        return items;
+    }
+
+    /**
+     * Keeps count of the items as the recycler view sees it from the notifications.
+     */
+    private class CountingObserver extends RecyclerView.AdapterDataObserver {
+
+        private int mItemCount;
+        private int mNotificationsCount;
+
+        @Override
+        public void onChanged() {
+            mNotificationsCount++;
+            mItemCount = mAdapter.getItemCount();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            mNotificationsCount++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mNotificationsCount++;
+            mItemCount += itemCount;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mNotificationsCount++;
+            mItemCount -= itemCount;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mNotificationsCount++;
+        }
+    }
+}
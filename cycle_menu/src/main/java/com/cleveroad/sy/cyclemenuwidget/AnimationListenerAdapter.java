@@ -1,20 +0,0 @@
-package com.cleveroad.sy.cyclemenuwidget;
-
-import android.view.animation.Animation;
-
-class AnimationListenerAdapter implements Animation.AnimationListener {
-    @Override
-    public void onAnimationStart(Animation animation) {
-        // do nothing
-    }
-
-    @Override
-    public void onAnimationEnd(Animation animation) {
-        // do nothing
-    }
-
-    @Override
-    public void onAnimationRepeat(Animation animation) {
-        // do nothing
-    }
-}
@@ -1,32 +1,40 @@
 package com.cleveroad.sy.cyclemenuwidget;
 
 import android.content.Context;
+import android.graphics.PointF;
 import android.graphics.Rect;
 import android.os.Build;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
 import android.util.Log;
-import android.util.SparseArray;
 import android.view.View;
-import android.view.animation.Animation;
+import android.view.ViewGroup;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
-import android.view.animation.LinearInterpolator;
-import android.view.animation.RotateAnimation;
 
 import com.cleveroad.sy.cyclemenuwidget.CycleMenuWidget.CORNER;
+import com.cleveroad.sy.cyclemenuwidget.core.AngularFling;
+import com.cleveroad.sy.cyclemenuwidget.core.ArcGeometry;
 
-public class CycleLayoutManager extends RecyclerView.LayoutManager {
+public class CycleLayoutManager extends RecyclerView.LayoutManager implements RecyclerView.SmoothScroller.ScrollVectorProvider {
 
     /**
-     * Scaling coefficient that is used for increasing spaces between two items in lollipop
+     * Duration of the smooth scroll per one degree of rotation in milliseconds.
      */
-    private static final double SCALING_COEFFICIENT = 1.3;
-
+    private static final float SMOOTH_SCROLL_DURATION_PER_DEGREE = 4f;
+    private static final int SMOOTH_SCROLL_MIN_DURATION = 200;
+    private static final int SMOOTH_SCROLL_MAX_DURATION = 800;
+    /**
+     * Duration of the rotation of one item in roll in animation.
+     */
+    private static final int ROLL_ITEM_DURATION = 300;
     /**
-     * Half of the margin from item side. Is used to calculate item scroll possibility.
+     * Angle from which items are rolled in.
      */
-    private int mHalfAdditionalMargin = 0;
+    private static final float ROLL_ANGLE = 100;
+    private static final int ROLL_OVERSHOOT_COEFFICIENT = 6;
 
     /**
      * Can disable/enable scrolling. Can be set via setter. Is used in @CycleMenuWidget class
@@ -38,80 +46,147 @@ public class CycleLayoutManager extends RecyclerView.LayoutManager {
      */
     private CORNER mCurrentCorner = CORNER.RIGHT_TOP;
 
+    /**
+     * If true then items positions are derived from the rotation of the menu and applied as float translations.
+     */
+    private boolean mSubPixelScrollEnabled = false;
+
     /**
      * Used to prevent scrolling when measureChildWithMargins called
      */
     private boolean mCanScroll = true;
 
     /**
-     * Calculated margin of each item. Used to calculate animation shift in rollInAnimation.
+     * Geometry of the menu: radius, angle per item and positions of the items.
      */
-    private double mMarginAngle;
-
+    private ArcGeometry mGeometry;
     /**
-     * Additional margin for items in preLollipop device.
-     * In preLollipop device FloatingActionButton has additional margins from the sides.
+     * Rect that is reused to calculate item decorations in measureChildWithMargins.
      */
-    private float mPreLollipopAdditionalButtonsMargin = 0;
-
+    private final Rect mDecorRect = new Rect();
     /**
-     * View cache that is used to recycler and remove all not used views in fill method.
+     * Used to indicate if are there available amount of items for scrolling.
      */
-    private SparseArray<View> mViewCache = new SparseArray<>();
+    private Boolean mScrollIsAvailableDueToChildrenCount;
     /**
-     * Angles of each item view. Used in internalScroll method.
+     * Predefined position of the first element
      */
-    private SparseArray<Double> mViewAngles;
+    private int mScrollToPosition = RecyclerView.NO_POSITION;
     /**
-     * Angle that view item has per own diameter.
+     * Position and angle of the first item that keep rotation of the menu through the next layout,
+     * e.g. while item views are released. Unlike {@link #mScrollToPosition} it doesn't move the slots of the items.
      */
-    private double mAnglePerItem = -1;
+    private int mAnchorPosition = RecyclerView.NO_POSITION;
+    private double mAnchorAngle;
     /**
-     * Calculated radius of the cycle menu.
+     * Predefined angle shift in degrees of the first element.
      */
-    private int mRadius = 10;
+    private double mAdditionalAngleOffset = CycleMenuWidget.UNDEFINED_ANGLE_VALUE;
     /**
-     * Used to indicate if are there available amount of items for scrolling.
+     * Angle of the first item after layout. Items are snapped to the slots that are shifted from this angle
+     * on multiples of angle per item.
      */
-    private Boolean mScrollIsAvailableDueToChildrenCount;
+    private double mRestAngle = 90;
     /**
-     * Predefined position of the first element
+     * Interpolator of the rotation for smoothScrollToPosition.
      */
-    private int mScrollToPosition = RecyclerView.NO_POSITION;
+    private final AccelerateDecelerateInterpolator mSmoothScrollInterpolator = new AccelerateDecelerateInterpolator();
     /**
-     * Predefined angle shift in degrees of the first element.
+     * Interpolator of the first part of the item roll in.
      */
-    private double mAdditionalAngleOffset = CycleMenuWidget.UNDEFINED_ANGLE_VALUE;
+    private final DecelerateInterpolator mRollInterpolator = new DecelerateInterpolator();
+    /**
+     * Count of the items that take part in roll in animation.
+     */
+    private int mRollChildCount;
+    /**
+     * If true then all item views are recycled and nothing is laid out. Is used while the menu is closed.
+     */
+    private boolean mItemsReleased = false;
 
     public CycleLayoutManager(Context context, CORNER corner ) {
         mCurrentCorner = corner;
-        mPreLollipopAdditionalButtonsMargin = context.getResources().getDimensionPixelSize(R.dimen.cm_prelollipop_additional_margin);
-        mViewAngles = new SparseArray<>();
+        float preLollipopAdditionalButtonsMargin = context.getResources().getDimensionPixelSize(R.dimen.cm_prelollipop_additional_margin);
+        mGeometry = new ArcGeometry(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP, preLollipopAdditionalButtonsMargin);
+        mGeometry.setCorner(corner.isLeftSide(), corner.isUpSide());
     }
 
     @Override
     public RecyclerView.LayoutParams generateDefaultLayoutParams() {
-        return new RecyclerView.LayoutParams(
+        return new LayoutParams(
                 RecyclerView.LayoutParams.MATCH_PARENT,
                 RecyclerView.LayoutParams.MATCH_PARENT);
     }
 
-    private int getRadius() {
-        return mRadius;
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(Context c, AttributeSet attrs) {
+        return new LayoutParams(c, attrs);
     }
 
-    private void setRadius(int radius) {
-        mRadius = radius;
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(ViewGroup.LayoutParams lp) {
+        if (lp instanceof ViewGroup.MarginLayoutParams) {
+            return new LayoutParams((ViewGroup.MarginLayoutParams) lp);
+        }
+        return new LayoutParams(lp);
+    }
+
+    @Override
+    public boolean checkLayoutParams(RecyclerView.LayoutParams lp) {
+        return lp instanceof LayoutParams;
     }
 
     void setCorner(@NonNull CORNER currentCorner) {
         mCurrentCorner = currentCorner;
+        mGeometry.setCorner(currentCorner.isLeftSide(), currentCorner.isUpSide());
+    }
+
+    /**
+     * Release item views to the recycled view pool or lay them out again.
+     *
+     * @param itemsReleased true to recycle all item views and stop laying them out
+     */
+    void setItemsReleased(boolean itemsReleased) {
+        if (mItemsReleased != itemsReleased) {
+            if (itemsReleased && getChildCount() > 0 && mGeometry.isInitialized()) {
+                //items are laid out from the same first item with the same angle when they are restored
+                setAnchor(getChildAt(0));
+            }
+            mItemsReleased = itemsReleased;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Keep current angle of the attached item for the next layout.
+     * Angle is taken by the position the view was laid out with, because adapter changes
+     * can shift the position of the view before the next layout.
+     *
+     * @param view attached item view
+     */
+    private void setAnchor(View view) {
+        int laidOutPosition = ((LayoutParams) view.getLayoutParams()).mLaidOutPosition;
+        mAnchorPosition = getPosition(view);
+        mAnchorAngle = mGeometry.getAngle(laidOutPosition);
     }
 
     void setScrollEnabled(boolean scrollEnabled) {
         mScrollEnabled = scrollEnabled;
     }
 
+    /**
+     * Enable/disable sub-pixel scrolling. If enabled, item views stay at the position where they were laid out
+     * and are moved along the arc with float translations calculated from the rotation of the menu.
+     *
+     * @param subPixelScrollEnabled true to enable sub-pixel scrolling
+     */
+    void setSubPixelScrollEnabled(boolean subPixelScrollEnabled) {
+        if (mSubPixelScrollEnabled != subPixelScrollEnabled) {
+            mSubPixelScrollEnabled = subPixelScrollEnabled;
+            requestLayout();
+        }
+    }
+
     @Override
     public boolean canScrollVertically() {
         return mCanScroll && mScrollEnabled && (mScrollIsAvailableDueToChildrenCount == null || mScrollIsAvailableDueToChildrenCount);
@@ -154,34 +229,25 @@ public class CycleLayoutManager extends RecyclerView.LayoutManager {
             delta = checkEndsReached(dScroll);
         }
 
-        int radius = getRadius();
-        //Length of the circle of the menu.
-        double circleLength = 2 * Math.PI * getRadius();
         //Approximately calculated angle that menu need to be scrolled on
-        double angleToRotate = 360.0 * delta / circleLength;
+        double angleToRotate = mGeometry.scrollDeltaToAngle(delta);
+        mGeometry.rotate(angleToRotate);
 
         for (int indexOfView = 0; indexOfView < childCount; indexOfView++) {
             View view = getChildAt(indexOfView);
             int viewPosition = getPosition(view);
-            //Save new angle of the view item
-            mViewAngles.put(viewPosition, angleToRotate + mViewAngles.get(viewPosition));
+            if (mSubPixelScrollEnabled) {
+                applyItemTranslation(view, viewPosition);
+                continue;
+            }
 
             //current position of the view item
             double viewCenterX = view.getRight() - view.getWidth() / 2.0;
             double viewCenterY = view.getTop() + view.getHeight() / 2.0;
 
             //new position for the view item
-            double newCenterX = radius * Math.cos(mViewAngles.get(viewPosition) * Math.PI / 180);
-            double newCenterY = radius * Math.sin(mViewAngles.get(viewPosition) * Math.PI / 180);
-
-            if (mCurrentCorner == CORNER.RIGHT_TOP) {
-                newCenterX = getWidth() - newCenterX;
-            } else if (mCurrentCorner == CORNER.LEFT_BOTTOM) {
-                newCenterY = getHeight() - newCenterY;
-            } else if (mCurrentCorner == CORNER.RIGHT_BOTTOM) {
-                newCenterX = getWidth() - newCenterX;
-                newCenterY = getHeight() - newCenterY;
-            }
+            double newCenterX = mGeometry.getCenterX(viewPosition);
+            double newCenterY = mGeometry.getCenterY(viewPosition);
 
             int dx = (int) Math.round(newCenterX - viewCenterX);
             int dy = (int) Math.round(newCenterY - viewCenterY);
@@ -206,318 +272,251 @@ public class CycleLayoutManager extends RecyclerView.LayoutManager {
      */
     private int checkEndsReached(int dy) {
         int childCount = getChildCount();
-        int itemCount = getItemCount();
         if (childCount == 0) {
             return 0;
         }
-
-        int delta = 0;
         View firstChildView = getChildAt(0);
         View lastChildView = getChildAt(childCount - 1);
-
-        if (dy < 0) { //scroll to bottom if menu corner is top side, to up if menu corner is bottom side
-            if (getPosition(lastChildView) < itemCount - 1) { //if last item not reached
-                delta = dy;
-            } else { //if last item reached
-                if (mCurrentCorner.isBottomSide()) { //scroll from bottom to up
-                    int viewBottom = getDecoratedBottom(lastChildView);
-                    int parentBottom = getHeight();
-                    delta = Math.max(parentBottom - mHalfAdditionalMargin - viewBottom, dy);
-                } else { //scroll from up to down
-                    int viewTop = getDecoratedTop(lastChildView);
-                    delta = Math.max(viewTop - mHalfAdditionalMargin, dy);
-                }
-            }
-        } else if (dy > 0) { //scroll to up if menu corner is top side, to bottom if menu corner is bottom side
-            if (getPosition(firstChildView) > 0) { //if first item not reached
-                delta = dy;
-            } else {
-                //if first item reached
-                if (mCurrentCorner.isLeftSide()) {
-                    int viewLeft = getDecoratedLeft(firstChildView);
-                    int parentLeft = 0;
-                    delta = Math.min(parentLeft - viewLeft + mHalfAdditionalMargin, dy);
-                } else {
-                    int viewRight = getDecoratedRight(firstChildView);
-                    int parentRight = getWidth();
-                    delta = Math.min(viewRight + mHalfAdditionalMargin - parentRight, dy);
-                }
-            }
-        }
-        return -delta;
+        return mGeometry.checkEndsReached(dy,
+                getPosition(firstChildView), getItemLeft(firstChildView), getItemRight(firstChildView),
+                getPosition(lastChildView), getItemTop(lastChildView), getItemBottom(lastChildView),
+                getItemCount());
     }
 
     @Override
     public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
-        mAnglePerItem = -1;
+        if (mItemsReleased) {
+            removeAndRecycleAllViews(recycler);
+            return;
+        }
+        if (mAnchorPosition == RecyclerView.NO_POSITION && mScrollToPosition == RecyclerView.NO_POSITION
+                && !state.isPreLayout() && mGeometry.isInitialized()) {
+            //items that are kept attached are laid out at the same angles, so changed items don't move the menu
+            for (int i = 0; i < getChildCount(); i++) {
+                View child = getChildAt(i);
+                if (!((RecyclerView.LayoutParams) child.getLayoutParams()).isItemRemoved()) {
+                    setAnchor(child);
+                    break;
+                }
+            }
+        }
+        if (mAnchorPosition >= state.getItemCount()) {
+            //NO_POSITION if there are no items
+            mAnchorPosition = state.getItemCount() - 1;
+        }
+        mGeometry.invalidate();
+        mGeometry.setSize(getWidth(), getHeight());
         detachAndScrapAttachedViews(recycler);
         if (getWidth() > 0 && getHeight() > 0 && getWidth() < 10000 && getHeight() < 10000) {
             fill(recycler);
         }
+        if (getChildCount() > 0) {
+            mAnchorPosition = RecyclerView.NO_POSITION;
+            mScrollToPosition = RecyclerView.NO_POSITION;
+        }
     }
 
+    /**
+     * Fill the menu incrementally. Views that left the arc are recycled, new views are added only on the ends,
+     * views that are still visible stay attached.
+     *
+     * @param recycler recycler to get and recycle views
+     */
     public void fill(RecyclerView.Recycler recycler) {
-        View anchorView = getAnchorView();
-        mViewCache.clear();
-
-        for (int i = 0, cnt = getChildCount(); i < cnt; i++) {
-            View view = getChildAt(i);
-            int pos = getPosition(view);
-            mViewCache.put(pos, view);
-        }
+        recycleViewsOutOfArc(recycler);
+        fillDown(recycler);
+        fillUp(recycler);
+    }
 
-        for (int i = 0; i < mViewCache.size(); i++) {
-            detachView(mViewCache.valueAt(i));
+    /**
+     * Recycle views from both ends of the menu that would not be added by fillUp and fillDown.
+     *
+     * @param recycler recycler to recycle views
+     */
+    private void recycleViewsOutOfArc(RecyclerView.Recycler recycler) {
+        //the first view is not needed if the next one already reached the top
+        while (getChildCount() > 1 && !canFillUp(getChildAt(1))) {
+            removeAndRecycleViewAt(0, recycler);
         }
-        fillUp(anchorView, recycler);
-        fillDown(anchorView, recycler);
-
-        for (int i = 0; i < mViewCache.size(); i++) {
-            recycler.recycleView(mViewCache.valueAt(i));
+        //the last view is not needed if the previous one already reached the bottom
+        while (getChildCount() > 1 && !canFillDown(getChildAt(getChildCount() - 2))) {
+            removeAndRecycleViewAt(getChildCount() - 1, recycler);
         }
     }
 
     /**
-     * fill to up items from the anchor item
+     * fill to up items from the first attached item
      *
-     * @param anchorView
-     * @param recycler
+     * @param recycler recycler to get views
      */
-    private void fillUp(@Nullable View anchorView, RecyclerView.Recycler recycler) {
-        int anchorPos;
-        if (anchorView != null) {
-            anchorPos = getPosition(anchorView);
-        } else {
+    private void fillUp(RecyclerView.Recycler recycler) {
+        if (getChildCount() == 0) {
             return;
         }
-
-        int pos = anchorPos - 1;
-        if (mScrollToPosition != RecyclerView.NO_POSITION) {
-            pos = mScrollToPosition - 1;
+        View firstView = getChildAt(0);
+        int pos = getPosition(firstView) - 1;
+        while (pos >= 0 && canFillUp(firstView)) {
+            firstView = addItemView(pos, 0, recycler);
+            pos--;
         }
-        boolean canFillUp;
-        int radius = getRadius();
-        double angle;
-        if (mCurrentCorner.isLeftSide()) {
-            canFillUp = anchorView.getLeft() > 0;
+    }
+
+    /**
+     * fill to down items from the last attached item.
+     * If there is no attached items then fill from the predefined position of the first element.
+     *
+     * @param recycler recycler to get views
+     */
+    private void fillDown(RecyclerView.Recycler recycler) {
+        int pos;
+        View lastView = null;
+        if (getChildCount() > 0) {
+            lastView = getChildAt(getChildCount() - 1);
+            pos = getPosition(lastView) + 1;
+        } else if (mAnchorPosition != RecyclerView.NO_POSITION) {
+            pos = mAnchorPosition;
+        } else if (mScrollToPosition != RecyclerView.NO_POSITION) {
+            pos = mScrollToPosition;
         } else {
-            canFillUp = anchorView.getRight() < getWidth();
+            pos = 0;
         }
-        angle = mViewAngles.get(anchorPos) + mAnglePerItem;
-        //Can be used View.MeasureSpec.AT_MOST because items is floating action buttons
-        final int widthSpec = View.MeasureSpec.makeMeasureSpec(getWidth(), View.MeasureSpec.AT_MOST);
-        final int heightSpec = View.MeasureSpec.makeMeasureSpec(getHeight(), View.MeasureSpec.AT_MOST);
-
-        int top;
-        int bottom;
-        int right;
-        int left;
-
-        while (canFillUp && pos >= 0) {
-            View view = mViewCache.get(pos);
-
-            if (view == null) {
-                mViewAngles.put(pos, angle);
-                view = recycler.getViewForPosition(pos);
-                addView(view, 0);
-                measureChildWithMargins(view, widthSpec, heightSpec);
-                int decoratedMeasuredWidth = getDecoratedMeasuredWidth(view);
-                int decoratedMeasuredHeight = getDecoratedMeasuredHeight(view);
-
-                //position of the new item
-                int xDistance = (int) (radius * Math.cos(angle * Math.PI / 180));
-                int yDistance = (int) (radius * Math.sin(angle * Math.PI / 180));
-
-                left = xDistance - decoratedMeasuredWidth / 2;
-                right = xDistance + decoratedMeasuredWidth / 2;
-                top = yDistance - decoratedMeasuredHeight / 2;
-                bottom = yDistance + decoratedMeasuredHeight / 2;
-
-                //changes for each corners except left_top
-                if (mCurrentCorner == CORNER.RIGHT_TOP) {
-                    left = getWidth() - xDistance - decoratedMeasuredWidth / 2;
-                    right = getWidth() - xDistance + decoratedMeasuredWidth / 2;
-                } else if (mCurrentCorner == CORNER.LEFT_BOTTOM) {
-                    top = getHeight() - yDistance - decoratedMeasuredHeight / 2;
-                    bottom = getHeight() - yDistance + decoratedMeasuredHeight / 2;
-                } else if (mCurrentCorner == CORNER.RIGHT_BOTTOM) {
-                    left = getWidth() - xDistance - decoratedMeasuredWidth / 2;
-                    right = getWidth() - xDistance + decoratedMeasuredWidth / 2;
-                    top = getHeight() - yDistance - decoratedMeasuredHeight / 2;
-                    bottom = getHeight() - yDistance + decoratedMeasuredHeight / 2;
-                }
-
-                layoutDecorated(view, left, top, right, bottom);
+        int itemCount = getItemCount();
+        while (pos < itemCount && (lastView == null || canFillDown(lastView))) {
+            lastView = addItemView(pos, -1, recycler);
+            pos++;
+            if (pos == itemCount && mScrollIsAvailableDueToChildrenCount == null) {
+                mScrollIsAvailableDueToChildrenCount = !canFillDown(lastView);
+            }
+        }
+    }
 
+    /**
+     * Add, measure and layout view for the position.
+     * The first added view after layout is used to calculate geometry of the menu.
+     *
+     * @param position position of the item in adapter
+     * @param index    index to add view at
+     * @param recycler recycler to get view
+     * @return added view
+     */
+    private View addItemView(int position, int index, RecyclerView.Recycler recycler) {
+        View view = recycler.getViewForPosition(position);
+        addView(view, index);
+        //Can be used View.MeasureSpec.AT_MOST because items is floating action buttons
+        measureChildWithMargins(view,
+                View.MeasureSpec.makeMeasureSpec(getWidth(), View.MeasureSpec.AT_MOST),
+                View.MeasureSpec.makeMeasureSpec(getHeight(), View.MeasureSpec.AT_MOST));
+        int decoratedMeasuredWidth = getDecoratedMeasuredWidth(view);
+        int decoratedMeasuredHeight = getDecoratedMeasuredHeight(view);
+        view.setTranslationX(0);
+        view.setTranslationY(0);
+        view.setRotation(0);
+        if (!mGeometry.isInitialized()) {
+            //calculate radius of the menu and margins between the items.
+            mGeometry.initialize(decoratedMeasuredHeight);
+            if (position == mAnchorPosition) {
+                //rest angle of the slots is kept
+                mGeometry.setAnchor(position, mAnchorAngle);
             } else {
-                attachView(view);
-                mViewCache.remove(pos);
-                left = view.getLeft();
-                right = view.getRight();
-            }
-            pos--;
-            //Check if top not reached
-            if (mCurrentCorner.isLeftSide()) {
-                canFillUp = left > 0;
-            } else if (mCurrentCorner.isRightSide()) {
-                canFillUp = right < getWidth();
+                double angle = 90;
+                if (mAdditionalAngleOffset < -999) {
+                    angle -= mGeometry.getAnglePerItem() / 2.0;
+                } else {
+                    angle -= mAdditionalAngleOffset;
+                }
+                mGeometry.setAnchor(position, angle);
+                mRestAngle = angle;
             }
-            angle += mAnglePerItem;
-
         }
+        ((LayoutParams) view.getLayoutParams()).mLaidOutPosition = position;
+
+        //position of the new item
+        int centerX = (int) mGeometry.getCenterX(position);
+        int centerY = (int) mGeometry.getCenterY(position);
+        layoutDecorated(view,
+                centerX - decoratedMeasuredWidth / 2,
+                centerY - decoratedMeasuredHeight / 2,
+                centerX + decoratedMeasuredWidth / 2,
+                centerY + decoratedMeasuredHeight / 2);
+        if (mSubPixelScrollEnabled) {
+            applyItemTranslation(view, position);
+        }
+        return view;
     }
 
     /**
-     * fill to up down from the anchor item
+     * Move item view to the exact position on the arc with float translations.
      *
-     * @param anchorView
-     * @param recycler
+     * @param view     item view
+     * @param position position of the item in adapter
      */
-    private void fillDown(@Nullable View anchorView, RecyclerView.Recycler recycler) {
+    private void applyItemTranslation(View view, int position) {
+        double layoutCenterX = getDecoratedLeft(view) + getDecoratedMeasuredWidth(view) / 2.0;
+        double layoutCenterY = getDecoratedTop(view) + getDecoratedMeasuredHeight(view) / 2.0;
+        view.setTranslationX((float) (mGeometry.getCenterX(position) - layoutCenterX));
+        view.setTranslationY((float) (mGeometry.getCenterY(position) - layoutCenterY));
+    }
 
-        int anchorPos = 0;
-        if (anchorView != null) {
-            anchorPos = getPosition(anchorView);
-        }
-        int pos = anchorPos;
-        if (mScrollToPosition != RecyclerView.NO_POSITION) {
-            pos = mScrollToPosition;
-        }
-        boolean canFillDown = true;
-        int itemCount = getItemCount();
-        //Can be used View.MeasureSpec.AT_MOST because items is floating action buttons
-        final int widthSpec = View.MeasureSpec.makeMeasureSpec(getWidth(), View.MeasureSpec.AT_MOST);
-        final int heightSpec = View.MeasureSpec.makeMeasureSpec(getHeight(), View.MeasureSpec.AT_MOST);
-
-        double angle = 90;
-        if (anchorView != null) {
-            angle = mViewAngles.get(pos);
-        }
-        int left;
-        int top;
-        int right;
-        int bottom;
-        while (canFillDown && pos < itemCount) {
-            View view = mViewCache.get(pos);
-            if (view == null) {
-                view = recycler.getViewForPosition(pos);
-                addView(view);
-                measureChildWithMargins(view, widthSpec, heightSpec);
-                int decoratedMeasuredWidth = getDecoratedMeasuredWidth(view);
-                int decoratedMeasuredHeight = getDecoratedMeasuredHeight(view);
-                if (mAnglePerItem < 0) { //if not initialized
-                    //calculate and set radius of the menu
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                        setRadius((getWidth() > getHeight() ? getHeight() : getWidth()) - decoratedMeasuredHeight * 4 / 5);
-                    } else {
-                        setRadius((getWidth() > getHeight() ? getHeight() : getWidth()) - decoratedMeasuredHeight / 2);
-                    }
-                    //Calculate margins between the items.
-                    double circleLength = 2 * Math.PI * getRadius();
-                    double anglePerLength;
-                    double anglePerLengthWithMargins;
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                        anglePerLength = 360.0 * (decoratedMeasuredHeight) / circleLength;
-                        anglePerLengthWithMargins = anglePerLength * SCALING_COEFFICIENT;
-                        mMarginAngle = (anglePerLengthWithMargins - anglePerLength) / 2.0;
-                        mHalfAdditionalMargin = (int) ((decoratedMeasuredHeight * SCALING_COEFFICIENT - decoratedMeasuredHeight) / 2.0);
-                    } else {
-                        //In preLollipop android floatingActionButton has additional margin.
-                        anglePerLength = 360.0 * (decoratedMeasuredHeight - mPreLollipopAdditionalButtonsMargin * 2) / circleLength;
-                        anglePerLengthWithMargins = 360.0 * (decoratedMeasuredHeight - mPreLollipopAdditionalButtonsMargin * 2 / 1.5f) / circleLength;
-                        mMarginAngle = (anglePerLengthWithMargins - anglePerLength) / 2.0;
-                    }
-                    if (mAdditionalAngleOffset < -999) {
-                        angle -= anglePerLengthWithMargins / 2.0;
-                    } else {
-                        angle -= mAdditionalAngleOffset;
-                    }
-                    mAnglePerItem = anglePerLengthWithMargins;
-                }
-                mViewAngles.put(pos, angle);
-                int xDistance = (int) (getRadius() * Math.cos(angle * Math.PI / 180));
-                int yDistance = (int) (getRadius() * Math.sin(angle * Math.PI / 180));
-
-                left = xDistance - decoratedMeasuredWidth / 2;
-                right = xDistance + decoratedMeasuredWidth / 2;
-                top = yDistance - decoratedMeasuredHeight / 2;
-                bottom = yDistance + decoratedMeasuredHeight / 2;
-                if (mCurrentCorner == CORNER.RIGHT_TOP) {
-                    left = getWidth() - xDistance - decoratedMeasuredWidth / 2;
-                    right = getWidth() - xDistance + decoratedMeasuredWidth / 2;
-                } else if (mCurrentCorner == CORNER.LEFT_BOTTOM) {
-                    top = getHeight() - yDistance - decoratedMeasuredHeight / 2;
-                    bottom = getHeight() - yDistance + decoratedMeasuredHeight / 2;
-                } else if (mCurrentCorner == CORNER.RIGHT_BOTTOM) {
-                    left = getWidth() - xDistance - decoratedMeasuredWidth / 2;
-                    right = getWidth() - xDistance + decoratedMeasuredWidth / 2;
-                    top = getHeight() - yDistance - decoratedMeasuredHeight / 2;
-                    bottom = getHeight() - yDistance + decoratedMeasuredHeight / 2;
-                }
+    /**
+     * Item bounds with translation. Translations are zero if sub-pixel scrolling is disabled.
+     */
+    private int getItemLeft(View view) {
+        return getDecoratedLeft(view) + Math.round(view.getTranslationX());
+    }
 
-                layoutDecorated(view, left, top, right, bottom);
-            } else {
+    private int getItemRight(View view) {
+        return getDecoratedRight(view) + Math.round(view.getTranslationX());
+    }
 
-                attachView(view);
-                mViewCache.remove(pos);
-                top = view.getTop();
-                bottom = view.getBottom();
-            }
+    private int getItemTop(View view) {
+        return getDecoratedTop(view) + Math.round(view.getTranslationY());
+    }
 
-            if (mCurrentCorner.isUpSide()) {
-                canFillDown = top > 0;
-            } else {
-                canFillDown = bottom < getHeight();
-            }
-            pos++;
-            if (pos == itemCount && mScrollIsAvailableDueToChildrenCount == null) {
-                mScrollIsAvailableDueToChildrenCount = !canFillDown;
-            }
-            angle -= mAnglePerItem;
-        }
+    private int getItemBottom(View view) {
+        return getDecoratedBottom(view) + Math.round(view.getTranslationY());
     }
 
     /**
-     * Getting anchor view for the filling.
-     * The first partially visible item
+     * @return true if the view doesn't reach the top end of the menu and previous item can be added.
      */
-    private View getAnchorView() {
-        View anchorView;
-        int childCount = getChildCount();
-        if (childCount == 0) {
-            return null;
-        }
-        int anchorViewPosition = 0;
+    private boolean canFillUp(View view) {
         if (mCurrentCorner.isLeftSide()) {
-            do {
-                anchorView = getChildAt(anchorViewPosition);
-                anchorViewPosition++;
-            } while (anchorView.getRight() < 0 && anchorViewPosition < childCount);
-        } else {
-            do {
-                anchorView = getChildAt(anchorViewPosition);
-                anchorViewPosition++;
-            } while (anchorView.getLeft() > getWidth() && anchorViewPosition < childCount);
+            return getItemLeft(view) > 0;
         }
+        return getItemRight(view) < getWidth();
+    }
 
-        return anchorView;
+    /**
+     * @return true if the view doesn't reach the bottom end of the menu and next item can be added.
+     */
+    private boolean canFillDown(View view) {
+        if (mCurrentCorner.isUpSide()) {
+            return getItemTop(view) > 0;
+        }
+        return getItemBottom(view) < getHeight();
     }
 
     @Override
     public void measureChildWithMargins(View child, int widthSpec, int heightSpec) {
+        calculateItemDecorationsForChild(child, mDecorRect);
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        int lWidthSpec = updateSpecWithExtra(widthSpec, lp.leftMargin + mDecorRect.left, lp.rightMargin + mDecorRect.right);
+        int lHeightSpec = updateSpecWithExtra(heightSpec, lp.topMargin + mDecorRect.top, lp.bottomMargin + mDecorRect.bottom);
+        //items are the same floating action buttons, so the view that was measured with the same specs
+        //and wasn't requested to be laid out again keeps its measured size.
+        if (!child.isLayoutRequested() && lp.mMeasuredWidthSpec == lWidthSpec && lp.mMeasuredHeightSpec == lHeightSpec) {
+            return;
+        }
+
         // change a value to "false "temporary while measuring
         mCanScroll = false;
-
-        Rect decorRect = new Rect();
-        calculateItemDecorationsForChild(child, decorRect);
-        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
-
-        int lWidthSpec = updateSpecWithExtra(widthSpec, lp.leftMargin + decorRect.left, lp.rightMargin + decorRect.right);
-        int lHeightSpec = updateSpecWithExtra(heightSpec, lp.topMargin + decorRect.top, lp.bottomMargin + decorRect.bottom);
         child.measure(lWidthSpec, lHeightSpec);
-
         // return a value to "true" because we do actually can scroll in both ways
         mCanScroll = true;
+
+        lp.mMeasuredWidthSpec = lWidthSpec;
+        lp.mMeasuredHeightSpec = lHeightSpec;
     }
 
     private int updateSpecWithExtra(int spec, int startInset, int endInset) {
@@ -547,11 +546,82 @@ public class CycleLayoutManager extends RecyclerView.LayoutManager {
      */
     double getCurrentItemsAngleOffset() {
         if (getChildCount() > 0) {
-            return 90 - mViewAngles.get(getPosition(getChildAt(0)));
+            return 90 - mGeometry.getAngle(getPosition(getChildAt(0)));
         }
         return 0;
     }
 
+    /**
+     * Convert fling velocity of the recycler view to the angular velocity of the menu.
+     *
+     * @param velocityX horizontal fling velocity in pixels per second
+     * @param velocityY vertical fling velocity in pixels per second
+     * @return angular velocity in degrees per second
+     */
+    double getRotationVelocity(int velocityX, int velocityY) {
+        //both scrollHorizontallyBy and scrollVerticallyBy are called while dragging, so velocities are summed.
+        int velocity = velocityY + ((mCurrentCorner == CORNER.RIGHT_TOP || mCurrentCorner == CORNER.LEFT_BOTTOM) ? velocityX : -velocityX);
+        return mGeometry.scrollDeltaToAngle(mCurrentCorner.isBottomSide() ? velocity : -velocity);
+    }
+
+    /**
+     * Convert rotation of the menu to the distance for {@link #scrollVerticallyBy}.
+     *
+     * @param rotation rotation in degrees
+     * @return vertical scroll distance
+     */
+    int getScrollDistanceForRotation(double rotation) {
+        int distance = mGeometry.angleToScrollDelta(rotation);
+        return mCurrentCorner.isBottomSide() ? distance : -distance;
+    }
+
+    /**
+     * Snap rotation so that the items stop on the slots where they are placed after layout.
+     *
+     * @param rotation rotation in degrees
+     * @return snapped rotation in degrees
+     */
+    double getSnapRotation(double rotation) {
+        if (getChildCount() == 0 || !mGeometry.isInitialized()) {
+            return 0;
+        }
+        int position = getPosition(getChildAt(0));
+        return AngularFling.snapRotation(rotation, mGeometry.getAngle(position), mRestAngle, mGeometry.getAnglePerItem());
+    }
+
+    /**
+     * @param rotation rotation in degrees
+     * @return position of the item that will be placed on the first slot after rotation
+     */
+    int getPositionAfterRotation(double rotation) {
+        if (getChildCount() == 0 || !mGeometry.isInitialized()) {
+            return RecyclerView.NO_POSITION;
+        }
+        int position = getPosition(getChildAt(0));
+        int target = position + (int) Math.round((mGeometry.getAngle(position) + rotation - mRestAngle) / mGeometry.getAnglePerItem());
+        return Math.max(0, Math.min(getItemCount() - 1, target));
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return rotation in degrees that places the item on the first slot
+     */
+    double getRotationToPosition(int position) {
+        if (!mGeometry.isInitialized()) {
+            return 0;
+        }
+        return mRestAngle - mGeometry.getAngle(position);
+    }
+
+    @Nullable
+    @Override
+    public PointF computeScrollVectorForPosition(int targetPosition) {
+        if (getChildCount() == 0 || !mGeometry.isInitialized()) {
+            return null;
+        }
+        return new PointF(0, Math.signum(getScrollDistanceForRotation(getRotationToPosition(targetPosition))));
+    }
+
     /**
      * Set shift angle of the items in degree.
      */
@@ -567,139 +637,129 @@ public class CycleLayoutManager extends RecyclerView.LayoutManager {
     }
 
 
-    void rollInItemsWithAnimation(final OnCompleteCallback callback) {
-        final int childCount = getChildCount();
-        if (childCount == 0) {
-            callback.onComplete();
-            return;
-        }
-        int overshootCoefficient = 6;
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-            overshootCoefficient = 6;
+    /**
+     * Prepare roll in animation of the attached items. Items are rotated with {@link #applyRollIn(float)}.
+     *
+     * @return duration of the roll in animation in milliseconds
+     */
+    int prepareRollIn() {
+        mRollChildCount = getChildCount();
+        int duration = 0;
+        for (int i = 0; i < mRollChildCount; i++) {
+            duration = Math.max(duration, getRollEndTime(i));
         }
-        int duration = 300;
-
-        int startOffset = duration / childCount;
+        return duration;
+    }
 
+    /**
+     * Rotate items around the corner of the menu. Each item starts its rotation with a delay,
+     * so rotations of all items are calculated from the same play time.
+     *
+     * @param time play time of the roll in animation in milliseconds
+     */
+    void applyRollIn(float time) {
+        float direction = (mCurrentCorner == CORNER.LEFT_TOP || mCurrentCorner == CORNER.RIGHT_BOTTOM) ? -1 : 1;
+        float cornerX = mCurrentCorner.isLeftSide() ? 0 : getWidth();
+        float cornerY = mCurrentCorner.isUpSide() ? 0 : getHeight();
+        int childCount = Math.min(getChildCount(), mRollChildCount);
         for (int i = 0; i < childCount; i++) {
-            final View view = getChildAt(i);
-            float animationRotateAnchorX = 0;
-            float animationRotateAnchorY = 0;
-            float startDegree = 100;
-            float overshootDegree = (float) ((i + overshootCoefficient) * mMarginAngle * 2f);
-            if (mCurrentCorner == CORNER.LEFT_TOP) {
-                startDegree = -100;
-                animationRotateAnchorX = -view.getLeft();
-                animationRotateAnchorY = -view.getTop();
-            } else if (mCurrentCorner == CORNER.RIGHT_TOP) {
-                startDegree = 100;
-                overshootDegree = -overshootDegree;
-                animationRotateAnchorX = getWidth() - view.getLeft();
-                animationRotateAnchorY = -view.getTop();
-            } else if (mCurrentCorner == CORNER.LEFT_BOTTOM) {
-                startDegree = 100;
-                overshootDegree = -overshootDegree;
-                animationRotateAnchorX = -view.getLeft();
-                animationRotateAnchorY = getHeight() - view.getTop();
-            } else if (mCurrentCorner == CORNER.RIGHT_BOTTOM) {
-                startDegree = -100;
-                animationRotateAnchorX = getWidth() - view.getLeft();
-                animationRotateAnchorY = getHeight() - view.getTop();
-            }
-
-            RotateAnimation rotateAnimation = new RotateAnimation(startDegree, overshootDegree, Animation.ABSOLUTE, animationRotateAnchorX, Animation.ABSOLUTE, animationRotateAnchorY);
-            rotateAnimation.setDuration(duration);
-            rotateAnimation.setStartOffset(startOffset * i / 2);
-            rotateAnimation.setFillBefore(true);
-            rotateAnimation.setInterpolator(new DecelerateInterpolator());
-
-            final RotateAnimation backRotateAnimation = new RotateAnimation(overshootDegree, 0, Animation.ABSOLUTE, animationRotateAnchorX, Animation.ABSOLUTE, animationRotateAnchorY);
-            backRotateAnimation.setDuration((i + overshootCoefficient) * startOffset / 2);
-            backRotateAnimation.setFillBefore(true);
-            backRotateAnimation.setInterpolator(new LinearInterpolator());
-
-            backRotateAnimation.setStartOffset((getChildCount() - i - 1) * startOffset / 2);
-            final int finalI = i;
-            rotateAnimation.setAnimationListener(new AnimationListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animation animation) {
-                    if (finalI == childCount - 1) {
-                        backRotateAnimation.setAnimationListener(new AnimationListenerAdapter() {
-
-                            @Override
-                            public void onAnimationEnd(Animation animation) {
-                                callback.onComplete();
-                            }
-                        });
-                    }
-                    view.startAnimation(backRotateAnimation);
-                }
-            });
-            view.startAnimation(rotateAnimation);
+            View view = getChildAt(i);
+            view.setPivotX(cornerX - view.getLeft() - view.getTranslationX());
+            view.setPivotY(cornerY - view.getTop() - view.getTranslationY());
+            view.setRotation(getRollInRotation(i, time, direction));
         }
     }
 
-    void rollOutItemsWithAnimation(final OnCompleteCallback callback) {
-        if (getChildCount() == 0) {
-            callback.onComplete();
-            return;
+    /**
+     * Return items to their places on the arc.
+     */
+    void resetItemsRotation() {
+        for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+            getChildAt(i).setRotation(0);
         }
-        int duration = 300;
-
-        int startOffset = 50;
-        for (int i = getChildCount() - 1; i >= 0; i--) {
-
-            final View view = getChildAt(i);
-            view.clearAnimation();
-            float animationRotateAnchorX = 0;
-            float animationRotateAnchorY = 0;
-            float overshootDegree = 0;
-            if (mCurrentCorner == CORNER.LEFT_TOP) {
-                overshootDegree = -100;
-                animationRotateAnchorX = -view.getLeft();
-                animationRotateAnchorY = -view.getTop();
-            } else if (mCurrentCorner == CORNER.RIGHT_TOP) {
-                overshootDegree = 100;
-                animationRotateAnchorX = getWidth() - view.getLeft();
-                animationRotateAnchorY = -view.getTop();
-            } else if (mCurrentCorner == CORNER.LEFT_BOTTOM) {
-                overshootDegree = 100;
-                animationRotateAnchorX = -view.getLeft();
-                animationRotateAnchorY = getHeight() - view.getTop();
-            } else if (mCurrentCorner == CORNER.RIGHT_BOTTOM) {
-                overshootDegree = -100;
-                animationRotateAnchorX = getWidth() - view.getLeft();
-                animationRotateAnchorY = getHeight() - view.getTop();
-            }
+    }
 
-            RotateAnimation rotateAnimation = new RotateAnimation(0, overshootDegree, Animation.ABSOLUTE, animationRotateAnchorX, Animation.ABSOLUTE, animationRotateAnchorY);
-            rotateAnimation.setDuration(duration);
-            rotateAnimation.setStartOffset(startOffset * (getChildCount() - i - 1));
-            rotateAnimation.setFillAfter(true);
-            rotateAnimation.setInterpolator(new DecelerateInterpolator());
-
-            if (i == 0) {
-                rotateAnimation.setAnimationListener(new AnimationListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animation animation) {
-                        callback.onComplete();
-                    }
-                });
-            }
-            view.startAnimation(rotateAnimation);
-        }
+    /**
+     * @param index index of the item view
+     * @return time in milliseconds when the item finishes its rotation
+     */
+    private int getRollEndTime(int index) {
+        int startOffset = ROLL_ITEM_DURATION / mRollChildCount;
+        return startOffset * index / 2 + ROLL_ITEM_DURATION
+                + (mRollChildCount - index - 1) * startOffset / 2
+                + (index + ROLL_OVERSHOOT_COEFFICIENT) * startOffset / 2;
+    }
 
+    /**
+     * Item is rotated from the start angle to the overshoot angle, waits for the other items
+     * and then returns to its place on the arc.
+     */
+    private float getRollInRotation(int index, float time, float direction) {
+        int startOffset = ROLL_ITEM_DURATION / mRollChildCount;
+        float startDegree = direction * ROLL_ANGLE;
+        float overshootDegree = (float) (-direction * (index + ROLL_OVERSHOOT_COEFFICIENT) * mGeometry.getMarginAngle() * 2f);
+        float start = startOffset * index / 2;
+        if (time < start + ROLL_ITEM_DURATION) {
+            float fraction = Math.max(0, time - start) / ROLL_ITEM_DURATION;
+            return startDegree + (overshootDegree - startDegree) * mRollInterpolator.getInterpolation(fraction);
+        }
+        float backStart = start + ROLL_ITEM_DURATION + (mRollChildCount - index - 1) * startOffset / 2;
+        float backDuration = (index + ROLL_OVERSHOOT_COEFFICIENT) * startOffset / 2;
+        float fraction = backDuration > 0 ? Math.min(1, Math.max(0, time - backStart) / backDuration) : 1;
+        return overshootDegree * (1 - fraction);
     }
 
     @Override
     public void scrollToPosition(int position) {
         mScrollToPosition = position;
+        mAnchorPosition = RecyclerView.NO_POSITION;
         requestLayout();
     }
 
-    interface OnCompleteCallback {
+    /**
+     * Rotate the menu so that item with the position is placed on the first slot.
+     * Target angle is calculated directly from the geometry of the menu, so the rotation is sent
+     * to the recycler view at once and doesn't need relayout.
+     */
+    @Override
+    public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state, int position) {
+        if (!mScrollEnabled || getChildCount() == 0 || !mGeometry.isInitialized()) {
+            //nothing to animate, position is kept as pending and the next layout starts from it
+            scrollToPosition(position);
+            return;
+        }
+        double rotation = getRotationToPosition(position);
+        int duration = (int) Math.max(SMOOTH_SCROLL_MIN_DURATION,
+                Math.min(SMOOTH_SCROLL_MAX_DURATION, Math.abs(rotation) * SMOOTH_SCROLL_DURATION_PER_DEGREE));
+        CycleSmoothScroller smoothScroller = new CycleSmoothScroller(this);
+        smoothScroller.setRotation(rotation, duration, mSmoothScrollInterpolator);
+        startSmoothScroll(smoothScroller);
+    }
+
+    /**
+     * Layout params that keep measure specs with which the item view was measured last time
+     * and position with which the item view was laid out.
+     */
+    static class LayoutParams extends RecyclerView.LayoutParams {
+
+        private int mMeasuredWidthSpec = -1;
+        private int mMeasuredHeightSpec = -1;
+        private int mLaidOutPosition = RecyclerView.NO_POSITION;
+
+        LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
 
-        void onComplete();
+        LayoutParams(int width, int height) {
+            super(width, height);
+        }
 
+        LayoutParams(ViewGroup.MarginLayoutParams source) {
+            super(source);
+        }
+
+        LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
     }
 }
@@ -8,10 +8,16 @@ import android.graphics.drawable.Drawable;
 public class CycleMenuItem {
     private Drawable mIcon;
     private int mId;
+    private boolean mEnabled;
 
     public CycleMenuItem(int id, Drawable icon) {
+        this(id, icon, true);
+    }
+
+    public CycleMenuItem(int id, Drawable icon, boolean enabled) {
         mId = id;
         mIcon = icon;
+        mEnabled = enabled;
     }
 
     public int getId() {
@@ -22,4 +28,8 @@ public class CycleMenuItem {
         return mIcon;
     }
 
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
 }
@@ -1,10 +1,6 @@
 package com.cleveroad.sy.cyclemenuwidget;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
-import android.annotation.SuppressLint;
+import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
@@ -12,6 +8,8 @@ import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Outline;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.PorterDuff;
@@ -25,48 +23,62 @@ import android.support.annotation.DrawableRes;
 import android.support.annotation.MenuRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.design.widget.FloatingActionButton;
 import android.support.v4.content.ContextCompat;
-import android.support.v7.view.menu.MenuBuilder;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
-import android.view.LayoutInflater;
+import android.util.SparseArray;
 import android.view.Menu;
-import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewOutlineProvider;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 import android.view.animation.OvershootInterpolator;
 import android.widget.ImageView;
 
+import com.cleveroad.sy.cyclemenuwidget.core.MenuRadiusCalculator;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public class CycleMenuWidget extends ViewGroup {
 
     public static final int UNDEFINED_ANGLE_VALUE = -1000;
     private static final int CENTER_IMAGE_ROTATE_DURATION = 300;
+    private static final float CENTER_IMAGE_OPEN_ANGLE = -45;
     private static final int REVEAL_ANIMATION_DURATION = 200;
     private static final int RIPPLE_REVEAL_DURATION = 300;
     private static final int RIPPLE_ALPHA_DURATION = 450;
 
-    private static final String RIPPLE_RADIUS_ANIMATOR_FIELD_NAME = "rippleRadius";
-    private static final String RIPPLE_ALPHA_ANIMATOR_FIELD_NAME = "rippleAlpha";
-    private static final String CIRCLE_RADIUS_ANIMATOR_FIELD_NAME = "animationCircleRadius";
-    private static final String SHADOW_SIZE_ANIMATOR_FIELD_NAME = "variableShadowSize";
-
     private static final String FIELD_NAME_FOR_EXCEPTION_ITEM = "item";
     private static final String FIELD_NAME_FOR_EXCEPTION_MENU = "menu";
     private static final String FIELD_NAME_FOR_EXCEPTION_ITEMS = "items";
     private static final String FIELD_NAME_FOR_EXCEPTION_CORNER = "corner";
     private static final String FIELD_NAME_FOR_EXCEPTION_SCALING_TYPE = "scalingType";
     private static final String FIELD_NAME_FOR_EXCEPTION_SCROLLING_TYPE = "scrollingType";
+    private static final String FIELD_NAME_FOR_EXCEPTION_SHADOW_RENDER_MODE = "shadowRenderMode";
 
     private static final int DEFAULT_UNDEFINED_VALUE = -1;
     private static final float SHADOW_SIZE_MIN_COEFFICIENT = 0.25f;
+    /**
+     * Count of item views that are kept in the recycled view pool while the menu is closed.
+     */
+    private static final int RECYCLED_ITEMS_MAX_COUNT = 20;
+    /**
+     * Shadow size is quantized to the half of pixel for the shadow cache.
+     */
+    private static final float SHADOW_SIZE_QUANTIZATION = 2f;
+    /**
+     * Ratio of the circle radius to the shadow radius is quantized to this count of steps for the shadow shader cache.
+     */
+    private static final int SHADOW_RATIO_QUANTIZATION = 128;
 
     /**
-     * Specifies states of cycle menu widget. If mState is IN_OPEN_PROCESS or IN_CLOSE_PROCESS then clicks will not be handled.
+     * Specifies states of cycle menu widget. If mState is IN_OPEN_PROCESS or IN_CLOSE_PROCESS then click reverses the animation.
      */
     public enum STATE {
         OPEN, CLOSED, IN_OPEN_PROCESS, IN_CLOSE_PROCESS
@@ -203,12 +215,55 @@ public class CycleMenuWidget extends ViewGroup {
 
     private SCROLL mScrollType = SCROLL.ENDLESS;
 
+    /**
+     * Specifies how the shadow around the circle is drawn.
+     * If GRADIENT then the shadow is drawn with the gradient path that is built for the current circle radius.
+     * If ATLAS then the shadow is rendered once into the bitmap for the max radius and drawn scaled to the current radius.
+     * Bitmap is shared between all widgets with the same shadow colors and size.
+     * If ELEVATION then the shadow is drawn by the RenderThread from the quarter circle outline of the widget.
+     * ELEVATION is available since API 21, GRADIENT is used on the previous versions.
+     */
+    public enum SHADOW_RENDER_MODE {
+        GRADIENT(0),
+        ATLAS(1),
+        ELEVATION(2);
+
+        private final int mValue;
+
+        SHADOW_RENDER_MODE(int value) {
+            mValue = value;
+        }
+
+        public int getValue() {
+            return mValue;
+        }
+
+        public static SHADOW_RENDER_MODE valueOf(int value) {
+            switch (value) {
+                case 1:
+                    return ATLAS;
+                case 2:
+                    return ELEVATION;
+                case 0:
+                default:
+                    return GRADIENT;
+            }
+        }
+    }
+
+    private SHADOW_RENDER_MODE mShadowRenderMode = SHADOW_RENDER_MODE.GRADIENT;
+    /**
+     * Outline provider and elevation set by user. They are replaced while ELEVATION shadow mode is used
+     * and restored when the mode is changed.
+     */
+    private ViewOutlineProvider mUserOutlineProvider;
+    private float mUserElevation;
+
     private OnStateChangedListener mOnStateChangeListener;
     private StateSaveListener mStateSaveListener;
 
     private boolean mShouldOpen = false;
     private float mShadowSize = 40;
-    private float mPreLollipopAdditionalButtonsMargin = 0;
     private float mVariableShadowSize = 45;
     private int mOutCircleRadius = 0;
 
@@ -249,6 +304,31 @@ public class CycleMenuWidget extends ViewGroup {
      * Path for the shadow around the background circle
      */
     private Path mCornerShadowPath;
+    /**
+     * Shadow shaders with the unit radius keyed by quantized ratio of the circle radius to the shadow radius.
+     * Shader is scaled to the current shadow radius with the local matrix, so the same shaders are used
+     * for all frames of the reveal animation.
+     */
+    private final SparseArray<RadialGradient> mShadowShaderCache = new SparseArray<>();
+    private final Matrix mShadowShaderMatrix = new Matrix();
+    private final RectF mShadowInnerBounds = new RectF();
+    private final RectF mShadowOuterBounds = new RectF();
+    /**
+     * Key of the shadow path and shader that are currently built.
+     */
+    private int mShadowCacheKey = -1;
+    private int mShadowCacheWidth = -1;
+    /**
+     * Shadow bitmap for the ATLAS shadow render mode and matrix to draw it scaled to the current circle radius.
+     */
+    private Bitmap mShadowAtlas;
+    private int mShadowAtlasRadius = -1;
+    private final Matrix mShadowAtlasMatrix = new Matrix();
+    private final Paint mShadowAtlasPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    /**
+     * Bounds of the circle that is drawn in onDraw.
+     */
+    private final RectF mCircleBounds = new RectF();
 
     /**
      * Minimal circle radius for the background
@@ -283,13 +363,38 @@ public class CycleMenuWidget extends ViewGroup {
      */
     private ImageView mCenterImage;
     /**
-     * Recycler view which contains items of the menu
+     * Recycler view which contains items of the menu. Is created with layout manager when the menu is opened first time.
      */
     private TouchedRecyclerView mRecyclerView;
     /**
      * Layout manager that place items in the circular way
      */
     private CycleLayoutManager mLayoutManager;
+    /**
+     * Measure spec of the recycler view calculated in onMeasure.
+     */
+    private int mRecyclerSizeMeasureSpec;
+    /**
+     * Settings of the layout manager and recycler view that are applied when they are created.
+     */
+    private boolean mSubPixelScrollEnabled = false;
+    private boolean mSnapEnabled = true;
+    /**
+     * Recycled view pool set by user to share item views between menus. Own pool of recycler view is used if null.
+     */
+    private RecyclerView.RecycledViewPool mRecycledViewPool;
+    /**
+     * Count of the menu items the menu was initialized with.
+     */
+    private int mMenuItemsCount = 0;
+    /**
+     * Rotates the menu with angular fling and snaps items to the slots.
+     */
+    private final CycleSnapHelper mSnapHelper = new CycleSnapHelper();
+    /**
+     * Timeline of the open/close animation.
+     */
+    private final OpenCloseTimeline mTimeline = new OpenCloseTimeline();
 
     /**
      * Background tint for the items
@@ -297,11 +402,9 @@ public class CycleMenuWidget extends ViewGroup {
     private ColorStateList mItemsBackgroundTint;
 
     /**
-     * Radiuses to be used to calculate real radius of the items recyclerView
+     * Calculator of the real radius of the items recyclerView. Keeps auto min, auto max and fixed radiuses.
      */
-    private int mAutoMinRadius = 0;
-    private int mAutoMaxRadius = 0;
-    private int mFixedRadius = 0;
+    private MenuRadiusCalculator mRadiusCalculator;
 
     /**
      * State of the layout manager and recyclerMenuAdapter
@@ -317,10 +420,19 @@ public class CycleMenuWidget extends ViewGroup {
      * When widget is used in the recyclerView item. It need to be requested to relayout itself.
      * runnableRequestLayout is used for that reason
      */
+    private Runnable mMenuItemsChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onMenuItemsChanged();
+        }
+    };
+
     private Runnable runnableRequestLayout = new Runnable() {
         @Override
         public void run() {
-            mLayoutManager.requestLayout();
+            if (mLayoutManager != null) {
+                mLayoutManager.requestLayout();
+            }
         }
     };
 
@@ -346,14 +458,18 @@ public class CycleMenuWidget extends ViewGroup {
 
     private void init(Context context, AttributeSet attrs) {
         setWillNotDraw(false);
+        float preLollipopAdditionalButtonsMargin = getResources().getDimensionPixelSize(R.dimen.cm_prelollipop_additional_margin);
+        mRadiusCalculator = new MenuRadiusCalculator(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP, preLollipopAdditionalButtonsMargin);
         TypedArray typedArrayValues = context.obtainStyledAttributes(attrs, R.styleable.CycleMenuWidget);
         mItemsBackgroundTint = typedArrayValues.getColorStateList(R.styleable.CycleMenuWidget_cm_item_background_tint);
         mCorner = CORNER.valueOf(typedArrayValues.getInt(R.styleable.CycleMenuWidget_cm_corner, CORNER.RIGHT_TOP.getValue()));
-        mAutoMinRadius = typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_autoMinRadius, DEFAULT_UNDEFINED_VALUE);
-        mAutoMaxRadius = typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_autoMaxRadius, DEFAULT_UNDEFINED_VALUE);
-        mFixedRadius = typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_fixedRadius, DEFAULT_UNDEFINED_VALUE);
+        mRadiusCalculator.setAutoMinRadius(typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_autoMinRadius, DEFAULT_UNDEFINED_VALUE));
+        mRadiusCalculator.setAutoMaxRadius(typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_autoMaxRadius, DEFAULT_UNDEFINED_VALUE));
+        mRadiusCalculator.setFixedRadius(typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_fixedRadius, DEFAULT_UNDEFINED_VALUE));
         mScalingType = RADIUS_SCALING_TYPE.valueOf(typedArrayValues.getInt(R.styleable.CycleMenuWidget_cm_radius_scale_type, RADIUS_SCALING_TYPE.AUTO.getValue()));
+        mRadiusCalculator.setFixedScaling(mScalingType == RADIUS_SCALING_TYPE.FIXED);
         mScrollType = SCROLL.valueOf(typedArrayValues.getInt(R.styleable.CycleMenuWidget_cm_scroll_type, SCROLL.BASIC.getValue()));
+        SHADOW_RENDER_MODE shadowRenderMode = SHADOW_RENDER_MODE.valueOf(typedArrayValues.getInt(R.styleable.CycleMenuWidget_cm_shadow_render_mode, SHADOW_RENDER_MODE.GRADIENT.getValue()));
         Drawable cornerImageDrawable = typedArrayValues.getDrawable(R.styleable.CycleMenuWidget_cm_corner_image_src);
         mRippleColor = typedArrayValues.getColor(R.styleable.CycleMenuWidget_cm_ripple_color, DEFAULT_UNDEFINED_VALUE);
         setCollapsedRadius(typedArrayValues.getDimensionPixelSize(R.styleable.CycleMenuWidget_cm_collapsed_radius, DEFAULT_UNDEFINED_VALUE));
@@ -382,23 +498,15 @@ public class CycleMenuWidget extends ViewGroup {
 
         mShadowSize = getResources().getDimensionPixelSize(R.dimen.cm_main_shadow_size);
         mVariableShadowSize = mShadowSize * SHADOW_SIZE_MIN_COEFFICIENT;
-        mPreLollipopAdditionalButtonsMargin = getContext().getResources().getDimensionPixelSize(R.dimen.cm_prelollipop_additional_margin);
         if (mCircleMinRadius == DEFAULT_UNDEFINED_VALUE) {
             mCircleMinRadius = getContext().getResources().getDimensionPixelSize(R.dimen.cm_circle_min_radius);
         }
         mAnimationCircleRadius = mCircleMinRadius;
 
-        mRecyclerView = new TouchedRecyclerView(getContext());
-        mRecyclerView.setOverScrollMode(RecyclerView.OVER_SCROLL_NEVER);
-        mLayoutManager = new CycleLayoutManager(getContext(), mCorner);
-        addView(mRecyclerView);
-
         mAdapter = new RecyclerMenuAdapter();
         if (mItemsBackgroundTint != null) {
             mAdapter.setItemsBackgroundTint(mItemsBackgroundTint);
         }
-        mRecyclerView.setLayoutManager(mLayoutManager);
-        mRecyclerView.setAdapter(mAdapter);
         mCenterImage = new ImageView(getContext());
         if (cornerImageDrawable != null) {
             mCenterImage.setImageDrawable(cornerImageDrawable);
@@ -412,11 +520,46 @@ public class CycleMenuWidget extends ViewGroup {
         addView(mCenterImage);
 
         mCenterImage.setOnTouchListener(new CenterImageTouchListener());
+        setShadowRenderMode(shadowRenderMode);
+    }
+
+    /**
+     * Create recycler view with layout manager. Widgets that are never opened don't create them.
+     *
+     * @param inLayout true if it is called while the widget is laid out
+     */
+    private void createItemsContainer(boolean inLayout) {
+        mRecyclerView = new TouchedRecyclerView(getContext());
+        mRecyclerView.setOverScrollMode(RecyclerView.OVER_SCROLL_NEVER);
+        mLayoutManager = new CycleLayoutManager(getContext(), mCorner);
+        mLayoutManager.setSubPixelScrollEnabled(mSubPixelScrollEnabled);
+        mLayoutManager.setAdditionalAngleOffset(mCurrentAngleOffset);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setAdapter(mAdapter);
+        if (mRecycledViewPool != null) {
+            mRecyclerView.setRecycledViewPool(mRecycledViewPool);
+        } else {
+            mRecyclerView.getRecycledViewPool().setMaxRecycledViews(0, RECYCLED_ITEMS_MAX_COUNT);
+        }
+        if (mSnapEnabled) {
+            mSnapHelper.attachToRecyclerView(mRecyclerView, mLayoutManager);
+        }
+        scrollEnabled(mState == STATE.OPEN);
+        //recycler view is placed below the center image
+        if (inLayout) {
+            addViewInLayout(mRecyclerView, 0, generateDefaultLayoutParams(), true);
+            mRecyclerView.measure(mRecyclerSizeMeasureSpec, mRecyclerSizeMeasureSpec);
+        } else {
+            addView(mRecyclerView, 0);
+        }
+        mInitialized = false;
     }
 
     @Override
     public boolean onInterceptTouchEvent(MotionEvent ev) {
-        mRecyclerView.setHasItemsToScroll(mLayoutManager.isCountOfItemsAvailableToScroll());
+        if (mRecyclerView != null) {
+            mRecyclerView.setHasItemsToScroll(mLayoutManager.isCountOfItemsAvailableToScroll());
+        }
         return super.onInterceptTouchEvent(ev);
     }
 
@@ -436,9 +579,8 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void addMenuItem(@NonNull CycleMenuItem item) {
         checkNonNullParams(item, FIELD_NAME_FOR_EXCEPTION_ITEM);
-        mInitialized = false;
         mAdapter.addItem(item);
-        mAdapter.notifyDataSetChanged();
+        onMenuItemsChanged();
     }
 
     /**
@@ -446,13 +588,9 @@ public class CycleMenuWidget extends ViewGroup {
      *
      * @param menuResId menu resource from which need to get menuItems and add to the cycleMenu
      */
-    @SuppressLint("RestrictedApi")
     public void setMenuRes(@MenuRes int menuResId) {
-        mInitialized = false;
-        Menu menu = new MenuBuilder(getContext());
-        MenuInflater inflater = new MenuInflater(getContext());
-        inflater.inflate(menuResId, menu);
-        setMenu(menu);
+        //parsed menu is cached and shared by all widgets with the same menu resource
+        addMenuItems(MenuResCache.getMenuItems(getContext(), menuResId));
     }
 
     /**
@@ -462,13 +600,12 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void setMenu(@NonNull Menu menu) {
         checkNonNullParams(menu, FIELD_NAME_FOR_EXCEPTION_MENU);
-        mInitialized = false;
+        List<CycleMenuItem> items = new ArrayList<>(menu.size());
         for (int i = 0; i < menu.size(); i++) {
             MenuItem menuItem = menu.getItem(i);
-            CycleMenuItem cycleMenuItem = new CycleMenuItem(menuItem.getItemId(), menuItem.getIcon());
-            mAdapter.addItem(cycleMenuItem);
+            items.add(new CycleMenuItem(menuItem.getItemId(), menuItem.getIcon(), menuItem.isEnabled()));
         }
-        mAdapter.notifyDataSetChanged();
+        addMenuItems(items);
     }
 
     /**
@@ -478,21 +615,69 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void addMenuItems(@NonNull Collection<CycleMenuItem> items) {
         checkNonNullParams(items, FIELD_NAME_FOR_EXCEPTION_ITEMS);
-        mInitialized = false;
         mAdapter.addItems(items);
-        mAdapter.notifyDataSetChanged();
+        onMenuItemsChanged();
     }
 
     /**
-     * Set the menu items for the cycleMenu
+     * Set the menu items for the cycleMenu. Items are compared with the current items by id,
+     * so only inserted, removed, moved and changed items are updated.
      *
      * @param items Collection of the items to set
      */
     public void setMenuItems(@NonNull Collection<CycleMenuItem> items) {
         checkNonNullParams(items, FIELD_NAME_FOR_EXCEPTION_ITEMS);
-        mInitialized = false;
         mAdapter.setItems(items);
-        mAdapter.notifyDataSetChanged();
+        onMenuItemsChanged();
+    }
+
+    /**
+     * Set the menu items for the cycleMenu. Difference with the current items is calculated on the background thread,
+     * so it can be used for large menus. If items are changed again before the difference is calculated then
+     * this update is discarded.
+     *
+     * @param items Collection of the items to set
+     */
+    public void setMenuItemsAsync(@NonNull Collection<CycleMenuItem> items) {
+        checkNonNullParams(items, FIELD_NAME_FOR_EXCEPTION_ITEMS);
+        mAdapter.setItemsAsync(items, mMenuItemsChangedRunnable);
+    }
+
+    /**
+     * Start batch update of the menu items. Changes of the items made until {@link #endUpdate()} is called
+     * are applied with one adapter notification and one relayout. Calls can be nested.
+     */
+    public void beginUpdate() {
+        mAdapter.beginUpdate();
+    }
+
+    /**
+     * Finish batch update of the menu items started with {@link #beginUpdate()}.
+     *
+     * @throws IllegalStateException if update was not started
+     */
+    public void endUpdate() {
+        mAdapter.endUpdate();
+        onMenuItemsChanged();
+    }
+
+    /**
+     * Radius of the menu and scroll type depend on the count of items, so the menu is initialized again
+     * only if the count is changed.
+     */
+    private void onMenuItemsChanged() {
+        if (mAdapter.isInUpdate()) {
+            return;
+        }
+        if (mMenuItemsCount != mAdapter.getRealItemsCount()) {
+            if (mAdapter.getItemCount() != Integer.MAX_VALUE && mLayoutManager != null && mLayoutManager.getChildCount() > 0) {
+                //laid out items keep rotation of the menu through the change, saved position can be outdated
+                mCurrentPosition = RecyclerView.NO_POSITION;
+            }
+            mMenuItemsCount = mAdapter.getRealItemsCount();
+            mInitialized = false;
+            requestLayout();
+        }
     }
 
     /**
@@ -503,8 +688,11 @@ public class CycleMenuWidget extends ViewGroup {
     public void setCorner(@NonNull CORNER corner) {
         checkNonNullParams(corner, FIELD_NAME_FOR_EXCEPTION_CORNER);
         mInitialized = false;
-        mLayoutManager.setCorner(corner);
+        if (mLayoutManager != null) {
+            mLayoutManager.setCorner(corner);
+        }
         mCorner = corner;
+        updateShadowOutline();
     }
 
     /**
@@ -516,6 +704,7 @@ public class CycleMenuWidget extends ViewGroup {
         checkNonNullParams(scalingType, FIELD_NAME_FOR_EXCEPTION_SCALING_TYPE);
         mInitialized = false;
         mScalingType = scalingType;
+        mRadiusCalculator.setFixedScaling(scalingType == RADIUS_SCALING_TYPE.FIXED);
     }
 
     /**
@@ -563,7 +752,7 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void setAutoMinRadius(int autoMinRadius) {
         mInitialized = false;
-        mAutoMinRadius = autoMinRadius;
+        mRadiusCalculator.setAutoMinRadius(autoMinRadius);
     }
 
     /**
@@ -573,7 +762,7 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void setAutoMaxRadius(int autoMaxRadius) {
         mInitialized = false;
-        mAutoMaxRadius = autoMaxRadius;
+        mRadiusCalculator.setAutoMaxRadius(autoMaxRadius);
     }
 
     /**
@@ -583,7 +772,7 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void setFixedRadius(int fixedRadius) {
         mInitialized = false;
-        mFixedRadius = fixedRadius;
+        mRadiusCalculator.setFixedRadius(fixedRadius);
     }
 
     /**
@@ -594,8 +783,8 @@ public class CycleMenuWidget extends ViewGroup {
     public void setCollapsedRadius(int collapsedRadius)
             throws IllegalArgumentException {
         mInitialized = false;
-        if (mScalingType == RADIUS_SCALING_TYPE.FIXED && collapsedRadius < mFixedRadius
-                || mScalingType == RADIUS_SCALING_TYPE.AUTO && collapsedRadius < mAutoMaxRadius) {
+        if (mScalingType == RADIUS_SCALING_TYPE.FIXED && collapsedRadius < mRadiusCalculator.getFixedRadius()
+                || mScalingType == RADIUS_SCALING_TYPE.AUTO && collapsedRadius < mRadiusCalculator.getAutoMaxRadius()) {
             mCircleMinRadius = collapsedRadius;
         }
     }
@@ -620,7 +809,6 @@ public class CycleMenuWidget extends ViewGroup {
     public void setItemsBackgroundTint(@Nullable ColorStateList itemsBackgroundTint) {
         mItemsBackgroundTint = itemsBackgroundTint;
         mAdapter.setItemsBackgroundTint(itemsBackgroundTint);
-        mAdapter.notifyDataSetChanged();
     }
 
     @Override
@@ -644,59 +832,18 @@ public class CycleMenuWidget extends ViewGroup {
         }
 
         if (mItemSize <= 0) {
-            FloatingActionButton buttonItem = (FloatingActionButton) LayoutInflater.from(getContext()).inflate(R.layout.cm_item_fab, this, false);
-            int buttonSpec = MeasureSpec.makeMeasureSpec(1000, MeasureSpec.AT_MOST);
-            measureChild(buttonItem, buttonSpec, buttonSpec);
-            int measuredItemWidth = buttonItem.getMeasuredWidth();
-            int measuredItemHeight = buttonItem.getMeasuredHeight();
-            mItemSize = measuredItemWidth > measuredItemHeight ? measuredItemWidth : measuredItemHeight;
-            if (mItemSize > 0) {
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                    mItemSize = (int) (mItemSize * 1.3);
-                } else {
-                    mItemSize = (int) (mItemSize - mPreLollipopAdditionalButtonsMargin * 2 / 1.5f);
-                }
-            }
-        }
-
-        mRecyclerSize = (int) ((width > height ? height : width) - mShadowSize);
-        @SuppressWarnings("Range") int recyclerSizeMeasureSpec = MeasureSpec.makeMeasureSpec(mRecyclerSize, MeasureSpec.EXACTLY);
-
-        if ((mScalingType == RADIUS_SCALING_TYPE.FIXED || mAutoMaxRadius > mRecyclerSize || mAutoMaxRadius < 0) && mRecyclerSize > 0) {
-            mAutoMaxRadius = mRecyclerSize;
+            mItemSize = mRadiusCalculator.calculateItemSize(ItemSizeCache.getItemSize(this));
         }
-        if (mAutoMinRadius < mCircleMinRadius + mItemSize) {
-            mAutoMinRadius = mCircleMinRadius + mItemSize;
-        }
-        if (mAutoMinRadius > mAutoMaxRadius) {
-            mAutoMinRadius = mAutoMaxRadius;
-        }
-        if (mScalingType == RADIUS_SCALING_TYPE.AUTO) {
-            mRecyclerSize = (int) (mItemSize * mAdapter.getRealItemsCount() * 4 / (Math.PI * 2));
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                mRecyclerSize += mItemSize * 5 / 8;
-            } else {
-                mRecyclerSize += mItemSize * 7 / 8;
-            }
-            if (mRecyclerSize > mAutoMaxRadius) {
-                mRecyclerSize = mAutoMaxRadius;
-            }
 
-            if (mRecyclerSize < mAutoMinRadius) {
-                mRecyclerSize = mAutoMinRadius;
-            }
-        } else if (mRecyclerSize > 0) {
-            if (mFixedRadius > mAutoMaxRadius) {
-                mFixedRadius = mAutoMaxRadius;
-            }
-            if (mFixedRadius < mAutoMinRadius) {
-                mFixedRadius = mAutoMinRadius;
-            }
-            mRecyclerSize = mFixedRadius;
-        }
+        int availableSize = (int) ((width > height ? height : width) - mShadowSize);
+        //noinspection Range
+        mRecyclerSizeMeasureSpec = MeasureSpec.makeMeasureSpec(availableSize, MeasureSpec.EXACTLY);
+        mRecyclerSize = mRadiusCalculator.calculateRecyclerSize(availableSize, mItemSize, mCircleMinRadius, mAdapter.getRealItemsCount());
 
         mOutCircleRadius = mRecyclerSize;
-        mRecyclerView.measure(recyclerSizeMeasureSpec, recyclerSizeMeasureSpec);
+        if (mRecyclerView != null) {
+            mRecyclerView.measure(mRecyclerSizeMeasureSpec, mRecyclerSizeMeasureSpec);
+        }
 
         int lCenterIconSize = (int) Math.sqrt(mCircleMinRadius * mCircleMinRadius / 2.0);
         int centerImageMeasureWidthSpec = MeasureSpec.makeMeasureSpec(lCenterIconSize, MeasureSpec.EXACTLY);
@@ -742,8 +889,13 @@ public class CycleMenuWidget extends ViewGroup {
         }
 
         mCenterImage.layout(centerImageLeft, centerImageTop, centerImageRight, centerImageBottom);
-        mRecyclerView.layout(recyclerLeft, recyclerTop, recyclerRight, recyclerBottom);
-        mRecyclerView.setTranslationX(getWidth());
+        if (mRecyclerView == null && mState == STATE.OPEN) {
+            createItemsContainer(true);
+        }
+        if (mRecyclerView != null) {
+            mRecyclerView.layout(recyclerLeft, recyclerTop, recyclerRight, recyclerBottom);
+            mRecyclerView.setTranslationX(getWidth());
+        }
         int countOfVisibleElements = (int) ((mRecyclerSize * Math.PI / 2) / mItemSize);
         if (!mInitialized && r > 0 && b > 0) {
             if (mAdapter.getRealItemsCount() > countOfVisibleElements && mScrollType == SCROLL.ENDLESS) {
@@ -754,12 +906,14 @@ public class CycleMenuWidget extends ViewGroup {
             } else {
                 mAdapter.setScrollType(SCROLL.BASIC);
             }
-            if (mCurrentPosition != RecyclerView.NO_POSITION) {
-                mLayoutManager.scrollToPosition(mCurrentPosition);
+            if (mLayoutManager != null) {
+                if (mCurrentPosition != RecyclerView.NO_POSITION) {
+                    mLayoutManager.scrollToPosition(mCurrentPosition);
+                }
+                mLayoutManager.setAdditionalAngleOffset(mCurrentAngleOffset);
+                mRecyclerView.post(runnableRequestLayout);
+                mInitialized = true;
             }
-            mLayoutManager.setAdditionalAngleOffset(mCurrentAngleOffset);
-            mRecyclerView.post(runnableRequestLayout);
-            mInitialized = true;
         }
         if (mState == STATE.OPEN) {
             open(false);
@@ -771,7 +925,11 @@ public class CycleMenuWidget extends ViewGroup {
         super.onDraw(canvas);
 
         int mainCircleRadius = mAnimationCircleRadius;
-        buildShadowCorners();
+        if (mShadowRenderMode == SHADOW_RENDER_MODE.GRADIENT) {
+            buildShadowCorners();
+        } else if (mShadowRenderMode == SHADOW_RENDER_MODE.ATLAS) {
+            prepareShadowAtlas();
+        }
 
         int rippleRadius = mainCircleRadius < mRippleRadius ? mainCircleRadius : mRippleRadius;
         int circleCenterX = 0;
@@ -780,19 +938,19 @@ public class CycleMenuWidget extends ViewGroup {
             int canvasState = canvas.save();
             canvas.rotate(-90, getWidth(), 0);
             canvas.translate(0, -getWidth());
-            canvas.drawPath(mCornerShadowPath, mCornerShadowPaint);
+            drawShadow(canvas);
             canvas.restoreToCount(canvasState);
         } else if (mCorner == CORNER.RIGHT_TOP) {
             circleCenterX = canvas.getWidth();
             circleCenterY = 0;
-            canvas.drawPath(mCornerShadowPath, mCornerShadowPaint);
+            drawShadow(canvas);
         } else if (mCorner == CORNER.LEFT_BOTTOM) {
             circleCenterX = 0;
             circleCenterY = getHeight();
             int canvasState = canvas.save();
             canvas.rotate(-180, getWidth(), 0);
             canvas.translate(getWidth(), -getHeight());
-            canvas.drawPath(mCornerShadowPath, mCornerShadowPaint);
+            drawShadow(canvas);
             canvas.restoreToCount(canvasState);
         } else if (mCorner == CORNER.RIGHT_BOTTOM) {
             circleCenterX = getWidth();
@@ -800,27 +958,97 @@ public class CycleMenuWidget extends ViewGroup {
             int canvasState = canvas.save();
             canvas.rotate(90, getWidth(), 0);
             canvas.translate(getHeight(), 0);
-            canvas.drawPath(mCornerShadowPath, mCornerShadowPaint);
+            drawShadow(canvas);
             canvas.restoreToCount(canvasState);
         }
 
-        canvas.drawCircle(circleCenterX, circleCenterY, mainCircleRadius, mCirclePaint);
-        canvas.drawCircle(
-                circleCenterX,
-                circleCenterY,
-                rippleRadius,
-                mRipplePaint);
+        //only one quadrant of the circles is visible, so only it is drawn
+        float startAngle = getCornerStartAngle();
+        mCircleBounds.set(circleCenterX - mainCircleRadius, circleCenterY - mainCircleRadius,
+                circleCenterX + mainCircleRadius, circleCenterY + mainCircleRadius);
+        canvas.drawArc(mCircleBounds, startAngle, 90f, true, mCirclePaint);
+        if (rippleRadius > 0 && mRipplePaint.getAlpha() > 0) {
+            mCircleBounds.set(circleCenterX - rippleRadius, circleCenterY - rippleRadius,
+                    circleCenterX + rippleRadius, circleCenterY + rippleRadius);
+            canvas.drawArc(mCircleBounds, startAngle, 90f, true, mRipplePaint);
+        }
+    }
+
+    /**
+     * @return start angle in degrees of the quadrant of the circle that is visible in the menu corner
+     */
+    private float getCornerStartAngle() {
+        if (mCorner == CORNER.LEFT_TOP) {
+            return 0;
+        } else if (mCorner == CORNER.RIGHT_TOP) {
+            return 90;
+        } else if (mCorner == CORNER.RIGHT_BOTTOM) {
+            return 180;
+        }
+        return 270;
+    }
+
+    /**
+     * Invalidate only the square in the menu corner that contains the quarter of the circle with the radius.
+     *
+     * @param radius radius of the circle
+     */
+    private void invalidateCorner(int radius) {
+        int left = mCorner.isLeftSide() ? 0 : getWidth() - radius;
+        int top = mCorner.isUpSide() ? 0 : getHeight() - radius;
+        ViewCompat.postInvalidateOnAnimation(this, Math.max(0, left), Math.max(0, top),
+                Math.min(getWidth(), left + radius), Math.min(getHeight(), top + radius));
+    }
+
+    /**
+     * Draw shadow in the right top corner. Canvas is rotated for the other corners.
+     */
+    private void drawShadow(Canvas canvas) {
+        if (mShadowRenderMode == SHADOW_RENDER_MODE.GRADIENT) {
+            canvas.drawPath(mCornerShadowPath, mCornerShadowPaint);
+        } else if (mShadowRenderMode == SHADOW_RENDER_MODE.ATLAS && mShadowAtlas != null) {
+            canvas.drawBitmap(mShadowAtlas, mShadowAtlasMatrix, mShadowAtlasPaint);
+        }
+    }
+
+    /**
+     * Take shadow bitmap rendered for the max circle radius and scale it to the current radius with the shadow.
+     */
+    private void prepareShadowAtlas() {
+        if (mOutCircleRadius <= 0) {
+            return;
+        }
+        int shadowSize = Math.round(mShadowSize);
+        if (mShadowAtlas == null || mShadowAtlasRadius != mOutCircleRadius) {
+            mShadowAtlas = ShadowAtlas.getShadow(mOutCircleRadius, shadowSize, mShadowStartColor, mShadowMiddleColor, mShadowEndColor);
+            mShadowAtlasRadius = mOutCircleRadius;
+        }
+        float scale = (mAnimationCircleRadius + mVariableShadowSize) / (mOutCircleRadius + shadowSize);
+        mShadowAtlasMatrix.setTranslate(getWidth() - mShadowAtlas.getWidth(), 0);
+        mShadowAtlasMatrix.postScale(scale, scale, getWidth(), 0);
     }
 
     /**
-     * Build path for circular shadow.
+     * Build path for circular shadow. Path is rebuilt and shader is taken from the cache only
+     * when the circle radius or the quantized shadow size are changed.
      */
     private void buildShadowCorners() {
-        float mCornerRadius = mAnimationCircleRadius;
+        int cornerRadius = mAnimationCircleRadius;
+        int quantizedShadowSize = Math.round(mVariableShadowSize * SHADOW_SIZE_QUANTIZATION);
+        int key = (cornerRadius << 12) | (quantizedShadowSize & 0xFFF);
+        if (mShadowCacheWidth != getWidth()) {
+            mShadowCacheWidth = getWidth();
+            mShadowCacheKey = -1;
+        }
+        if (key == mShadowCacheKey && mCornerShadowPath != null) {
+            return;
+        }
+        mShadowCacheKey = key;
+        float shadowSize = quantizedShadowSize / SHADOW_SIZE_QUANTIZATION;
 
-        RectF innerBounds = new RectF(getWidth() - mCornerRadius, -mCornerRadius, getWidth() + mCornerRadius, mCornerRadius);
-        RectF outerBounds = new RectF(innerBounds);
-        outerBounds.inset(-mVariableShadowSize, -mVariableShadowSize);
+        mShadowInnerBounds.set(getWidth() - cornerRadius, -cornerRadius, getWidth() + cornerRadius, cornerRadius);
+        mShadowOuterBounds.set(mShadowInnerBounds);
+        mShadowOuterBounds.inset(-shadowSize, -shadowSize);
 
         if (mCornerShadowPath == null) {
             mCornerShadowPath = new Path();
@@ -828,24 +1056,34 @@ public class CycleMenuWidget extends ViewGroup {
             mCornerShadowPath.reset();
         }
         mCornerShadowPath.setFillType(Path.FillType.EVEN_ODD);
-        mCornerShadowPath.moveTo(getWidth() - mCornerRadius, 0);
+        mCornerShadowPath.moveTo(getWidth() - cornerRadius, 0);
 
-        mCornerShadowPath.rLineTo(-mVariableShadowSize, 0);
+        mCornerShadowPath.rLineTo(-shadowSize, 0);
         // outer arc
-        mCornerShadowPath.arcTo(outerBounds, 180f, -90f, false);
+        mCornerShadowPath.arcTo(mShadowOuterBounds, 180f, -90f, false);
         // inner arc
-        mCornerShadowPath.arcTo(innerBounds, 90f, 90f, false);
+        mCornerShadowPath.arcTo(mShadowInnerBounds, 90f, 90f, false);
 
-        float shadowRadius = -outerBounds.top;
-        if (shadowRadius > 0f) {
-            float startRatio = mCornerRadius / shadowRadius;
+        float shadowRadius = -mShadowOuterBounds.top;
+        if (shadowRadius <= 0f) {
+            return;
+        }
+        int ratioKey = Math.round(cornerRadius / shadowRadius * SHADOW_RATIO_QUANTIZATION);
+        RadialGradient gradient = mShadowShaderCache.get(ratioKey);
+        if (gradient == null) {
+            float startRatio = (float) ratioKey / SHADOW_RATIO_QUANTIZATION;
             float midRatio = startRatio + ((1f - startRatio) / 2f);
-            RadialGradient gradient = new RadialGradient(getWidth(), 0, shadowRadius,
+            //shader keeps the arrays, so they are allocated only for the new cache entry
+            gradient = new RadialGradient(0, 0, 1f,
                     new int[]{0, mShadowStartColor, mShadowMiddleColor, mShadowEndColor},
                     new float[]{0f, startRatio, midRatio, 1f},
                     Shader.TileMode.CLAMP);
-            mCornerShadowPaint.setShader(gradient);
+            mShadowShaderCache.put(ratioKey, gradient);
         }
+        mShadowShaderMatrix.setScale(shadowRadius, shadowRadius);
+        mShadowShaderMatrix.postTranslate(getWidth(), 0);
+        gradient.setLocalMatrix(mShadowShaderMatrix);
+        mCornerShadowPaint.setShader(gradient);
     }
 
     /**
@@ -858,13 +1096,130 @@ public class CycleMenuWidget extends ViewGroup {
         mScrollType = scrollType;
     }
 
+    /**
+     * Set render mode of the shadow around the circle.
+     *
+     * @param shadowRenderMode the shadow render mode GRADIENT, ATLAS, ELEVATION. ELEVATION is replaced with GRADIENT before API 21.
+     */
+    public void setShadowRenderMode(@NonNull SHADOW_RENDER_MODE shadowRenderMode) {
+        checkNonNullParams(shadowRenderMode, FIELD_NAME_FOR_EXCEPTION_SHADOW_RENDER_MODE);
+        if (shadowRenderMode == SHADOW_RENDER_MODE.ELEVATION && Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            shadowRenderMode = SHADOW_RENDER_MODE.GRADIENT;
+        }
+        SHADOW_RENDER_MODE previousShadowRenderMode = mShadowRenderMode;
+        mShadowRenderMode = shadowRenderMode;
+        if (shadowRenderMode != SHADOW_RENDER_MODE.ATLAS) {
+            mShadowAtlas = null;
+            mShadowAtlasRadius = -1;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            if (shadowRenderMode == SHADOW_RENDER_MODE.ELEVATION && previousShadowRenderMode != SHADOW_RENDER_MODE.ELEVATION) {
+                mUserOutlineProvider = getOutlineProvider();
+                mUserElevation = getElevation();
+                setOutlineProvider(new CornerOutlineProvider());
+            } else if (shadowRenderMode != SHADOW_RENDER_MODE.ELEVATION && previousShadowRenderMode == SHADOW_RENDER_MODE.ELEVATION) {
+                setOutlineProvider(mUserOutlineProvider);
+                setElevation(mUserElevation);
+                mUserOutlineProvider = null;
+            }
+            updateShadowOutline();
+        }
+        invalidate();
+    }
+
+    /**
+     * Update elevation and outline of the widget when the circle radius or shadow size are changed in ELEVATION mode.
+     */
+    private void updateShadowOutline() {
+        if (mShadowRenderMode == SHADOW_RENDER_MODE.ELEVATION && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            setElevation(mVariableShadowSize);
+            invalidateOutline();
+        }
+    }
+
+    /**
+     * Enable/disable sub-pixel scrolling of the items. If enabled, positions of the items are calculated
+     * from the rotation of the menu and applied as float translations, so items don't wobble along the arc.
+     *
+     * @param subPixelScrollEnabled true to enable sub-pixel scrolling
+     */
+    public void setSubPixelScrollEnabled(boolean subPixelScrollEnabled) {
+        mSubPixelScrollEnabled = subPixelScrollEnabled;
+        if (mLayoutManager != null) {
+            mLayoutManager.setSubPixelScrollEnabled(subPixelScrollEnabled);
+        }
+    }
+
+    /**
+     * Enable/disable angular fling of the menu with snapping of the items to the nearest slots. Enabled by default.
+     *
+     * @param snapEnabled true to enable fling with snapping
+     */
+    public void setSnapEnabled(boolean snapEnabled) {
+        mSnapEnabled = snapEnabled;
+        if (mRecyclerView == null) {
+            return;
+        }
+        if (snapEnabled) {
+            mSnapHelper.attachToRecyclerView(mRecyclerView, mLayoutManager);
+        } else {
+            mSnapHelper.detachFromRecyclerView();
+        }
+    }
+
+    /**
+     * Set recycled view pool for the item views. The same pool can be set to all menus in a screen,
+     * so item views of closed or scrolled away menus are reused by other menus instead of being inflated.
+     *
+     * @param recycledViewPool pool to share, or null to use own pool of the menu
+     * @see #createRecycledViewPool(Context, int)
+     */
+    public void setRecycledViewPool(@Nullable RecyclerView.RecycledViewPool recycledViewPool) {
+        mRecycledViewPool = recycledViewPool;
+        if (mRecyclerView == null) {
+            return;
+        }
+        if (recycledViewPool != null) {
+            mRecyclerView.setRecycledViewPool(recycledViewPool);
+        } else {
+            RecyclerView.RecycledViewPool ownPool = new RecyclerView.RecycledViewPool();
+            ownPool.setMaxRecycledViews(0, RECYCLED_ITEMS_MAX_COUNT);
+            mRecyclerView.setRecycledViewPool(ownPool);
+        }
+    }
+
+    /**
+     * Create recycled view pool that can be shared between menus with {@link #setRecycledViewPool(RecyclerView.RecycledViewPool)}.
+     * Pool is pre-warmed with item views, so menus that are opened first time don't inflate them.
+     *
+     * @param context      context with the theme of the menus
+     * @param prewarmCount count of item views to inflate into the pool
+     * @return recycled view pool for the menu item views
+     */
+    public static RecyclerView.RecycledViewPool createRecycledViewPool(@NonNull Context context, int prewarmCount) {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(0, Math.max(RECYCLED_ITEMS_MAX_COUNT, prewarmCount));
+        if (prewarmCount > 0) {
+            RecyclerMenuAdapter adapter = new RecyclerMenuAdapter();
+            //item views are inflated with layout params of the cycle layout manager
+            RecyclerView parent = new RecyclerView(context);
+            parent.setLayoutManager(new CycleLayoutManager(context, CORNER.RIGHT_TOP));
+            for (int i = 0; i < prewarmCount; i++) {
+                pool.putRecycledView(adapter.createViewHolder(parent, 0));
+            }
+        }
+        return pool;
+    }
+
     /**
      * Retrieve current position from the menu
      *
      * @return position of the first item
      */
     private int getCurrentPosition() {
-        return mLayoutManager.getCurrentPosition();
+        int position = mLayoutManager != null ? mLayoutManager.getCurrentPosition() : RecyclerView.NO_POSITION;
+        //items are released while the menu is closed, so the position saved on release is used
+        return position != RecyclerView.NO_POSITION ? position : mCurrentPosition;
     }
 
     /**
@@ -887,6 +1242,36 @@ public class CycleMenuWidget extends ViewGroup {
         }
     }
 
+    /**
+     * Rotate the menu with animation so that the item becomes the first visible item.
+     * If scroll type is ENDLESS then the menu is rotated to the nearest copy of the item.
+     *
+     * @param itemPosition position of the item in the menu
+     */
+    public void smoothScrollToItem(int itemPosition) {
+        int itemsCount = mAdapter.getRealItemsCount();
+        if (itemPosition < 0 || itemPosition >= itemsCount) {
+            return;
+        }
+        int currentPosition = getCurrentPosition();
+        int position = itemPosition;
+        if (mAdapter.getItemCount() == Integer.MAX_VALUE && currentPosition != RecyclerView.NO_POSITION) {
+            position = currentPosition - currentPosition % itemsCount + itemPosition;
+            if (position - currentPosition > itemsCount / 2) {
+                position -= itemsCount;
+            } else if (currentPosition - position > itemsCount / 2) {
+                position += itemsCount;
+            }
+        }
+        if (mState != STATE.OPEN) {
+            //items of the closed menu are placed from this position when the menu is opened
+            mCurrentPosition = position;
+        }
+        if (mRecyclerView != null) {
+            mRecyclerView.smoothScrollToPosition(position);
+        }
+    }
+
     /**
      * Set current offset of the firstItem as an angle (in degrees)
      *
@@ -894,7 +1279,9 @@ public class CycleMenuWidget extends ViewGroup {
      */
     public void setCurrentItemsAngleOffset(double angle) {
         mCurrentAngleOffset = angle;
-        mLayoutManager.setAdditionalAngleOffset(angle);
+        if (mLayoutManager != null) {
+            mLayoutManager.setAdditionalAngleOffset(angle);
+        }
     }
 
     /**
@@ -915,24 +1302,24 @@ public class CycleMenuWidget extends ViewGroup {
         mStateSaveListener = stateSaveListener;
     }
 
-    @SuppressWarnings("unused")
     private void setRippleAlpha(int rippleAlpha) {
         mRipplePaint.setAlpha(rippleAlpha);
-        invalidate();
+        invalidateCorner(Math.min(mRippleRadius, mAnimationCircleRadius));
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
         mInitialized = false;
-        mLayoutManager.requestLayout();
+        if (mLayoutManager != null) {
+            mLayoutManager.requestLayout();
+        }
         mAdapter.notifyDataSetChanged();
     }
 
     @Override
     protected void onDetachedFromWindow() {
-        mCurrentPosition = getCurrentPosition();
-        mCurrentAngleOffset = mLayoutManager.getCurrentItemsAngleOffset();
+        saveItemsPosition();
         if (mStateSaveListener != null) {
             mStateSaveListener.saveState(mCurrentPosition, mCurrentAngleOffset);
         }
@@ -940,10 +1327,7 @@ public class CycleMenuWidget extends ViewGroup {
             close(false);
         }
         if (mState == STATE.IN_OPEN_PROCESS) {
-            mState = STATE.OPEN;
-            sendState();
-            mAnimationCircleRadius = mOutCircleRadius;
-            scrollEnabled(true);
+            open(false);
         }
         super.onDetachedFromWindow();
     }
@@ -987,18 +1371,21 @@ public class CycleMenuWidget extends ViewGroup {
      * @param enabled - scroll enabling value
      */
     private void scrollEnabled(boolean enabled) {
+        if (mRecyclerView == null) {
+            return;
+        }
+        if (!enabled) {
+            mRecyclerView.stopScroll();
+        }
         mRecyclerView.setTouchEnabled(enabled);
         mLayoutManager.setScrollEnabled(enabled);
     }
 
     /**
-     * Change menu mState open -> close, close -> open if don't doing open/close right now.
+     * Change menu mState open -> close, close -> open. If menu is opening or closing right now then the animation is reversed.
      */
     private void changeMenuState() {
-        if (mState == STATE.IN_OPEN_PROCESS || mState == STATE.IN_CLOSE_PROCESS) {
-            return;
-        }
-        if (mState == STATE.OPEN) {
+        if (mState == STATE.OPEN || mState == STATE.IN_OPEN_PROCESS) {
             close(true);
             return;
         }
@@ -1010,51 +1397,28 @@ public class CycleMenuWidget extends ViewGroup {
      *
      * @param animated - indicate if need to open cycle menu with animation (true), immediately otherwise
      */
-    public void open(final boolean animated) {
-        int centerCrossImageRotateAngle = -45;
+    public void open(boolean animated) {
         if (animated) {
             scrollEnabled(false);
             mState = STATE.IN_OPEN_PROCESS;
             sendState();
-            mCenterImage.animate()
-                    .rotation(centerCrossImageRotateAngle)
-                    .setInterpolator(new OvershootInterpolator(2))
-                    .setDuration(CENTER_IMAGE_ROTATE_DURATION)
-                    .start();
-
-            ObjectAnimator circleRadiusAnimator = ObjectAnimator.ofInt(this, CIRCLE_RADIUS_ANIMATOR_FIELD_NAME, mCircleMinRadius, mOutCircleRadius);
-            circleRadiusAnimator.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    mRecyclerView.setTranslationX(0);
-                    mLayoutManager.rollInItemsWithAnimation(new CycleLayoutManager.OnCompleteCallback() {
-                        @Override
-                        public void onComplete() {
-                            mState = STATE.OPEN;
-                            sendState();
-                            scrollEnabled(true);
-                            if (mOnStateChangeListener != null) {
-                                mOnStateChangeListener.onOpenComplete();
-                            }
-                        }
-                    });
-                }
-            });
-            ObjectAnimator shadowAnimator = ObjectAnimator.ofFloat(this, SHADOW_SIZE_ANIMATOR_FIELD_NAME, mShadowSize * SHADOW_SIZE_MIN_COEFFICIENT, mShadowSize);
-
-            AnimatorSet animatorSet = new AnimatorSet();
-            animatorSet.setDuration(REVEAL_ANIMATION_DURATION);
-            animatorSet.playTogether(circleRadiusAnimator, shadowAnimator);
-            animatorSet.start();
+            restoreItems();
+            mTimeline.start(true);
         } else {
+            mTimeline.stop();
+            restoreItems();
             mVariableShadowSize = mShadowSize;
-            mCenterImage.setRotation(centerCrossImageRotateAngle);
+            mCenterImage.setRotation(CENTER_IMAGE_OPEN_ANGLE);
+            int previousCircleRadius = mAnimationCircleRadius;
             mAnimationCircleRadius = mOutCircleRadius;
+            mLayoutManager.resetItemsRotation();
             mRecyclerView.setTranslationX(0);
             scrollEnabled(true);
             mState = STATE.OPEN;
             sendState();
-            invalidate();
+            updateShadowOutline();
+            //changed radius range with the shadow around it
+            invalidateCorner(Math.max(previousCircleRadius, mAnimationCircleRadius) + (int) Math.ceil(mShadowSize));
         }
     }
 
@@ -1068,101 +1432,125 @@ public class CycleMenuWidget extends ViewGroup {
             scrollEnabled(false);
             mState = STATE.IN_CLOSE_PROCESS;
             sendState();
-            mCenterImage.animate()
-                    .rotation(0)
-                    .setInterpolator(new OvershootInterpolator(2))
-                    .setDuration(CENTER_IMAGE_ROTATE_DURATION)
-                    .start();
-            mLayoutManager.rollOutItemsWithAnimation(new CycleLayoutManager.OnCompleteCallback() {
-                @Override
-                public void onComplete() {
-                    innerAnimatedClose();
-                }
-            });
+            mTimeline.start(false);
         } else {
+            mTimeline.stop();
             scrollEnabled(true);
             mState = STATE.CLOSED;
             sendState();
             mVariableShadowSize = mShadowSize * SHADOW_SIZE_MIN_COEFFICIENT;
             mCenterImage.setRotation(0);
             mAnimationCircleRadius = mCircleMinRadius;
+            releaseItems();
+            updateShadowOutline();
             invalidate();
         }
     }
 
-    private void innerAnimatedClose() {
-        ObjectAnimator circleRadiusAnimator = ObjectAnimator.ofInt(this, CIRCLE_RADIUS_ANIMATOR_FIELD_NAME, mOutCircleRadius, mCircleMinRadius);
-        circleRadiusAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                mState = STATE.CLOSED;
-                sendState();
-                if (mOnStateChangeListener != null) {
-                    mOnStateChangeListener.onCloseComplete();
-                }
-            }
-        });
-        ObjectAnimator shadowAnimator = ObjectAnimator.ofFloat(this, SHADOW_SIZE_ANIMATOR_FIELD_NAME, mShadowSize, mShadowSize * SHADOW_SIZE_MIN_COEFFICIENT);
+    /**
+     * Save position and angle offset of the first item, if items are laid out.
+     */
+    private void saveItemsPosition() {
+        if (mLayoutManager != null && mLayoutManager.getCurrentPosition() != RecyclerView.NO_POSITION) {
+            mCurrentPosition = mLayoutManager.getCurrentPosition();
+            mCurrentAngleOffset = mLayoutManager.getCurrentItemsAngleOffset();
+        }
+    }
 
-        AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.setDuration(REVEAL_ANIMATION_DURATION);
-        animatorSet.playTogether(circleRadiusAnimator, shadowAnimator);
-        animatorSet.start();
+    /**
+     * Recycle item views while the menu is closed. Layout manager keeps the first item and its angle
+     * and lays out items from them when they are restored.
+     */
+    private void releaseItems() {
+        if (mRecyclerView == null) {
+            return;
+        }
+        saveItemsPosition();
         mRecyclerView.setTranslationX(getWidth());
+        mRecyclerView.setVisibility(INVISIBLE);
+        mLayoutManager.setItemsReleased(true);
+    }
+
+    /**
+     * Lay out item views again before the menu is opened. Recycler view is created on the first call.
+     */
+    private void restoreItems() {
+        if (mRecyclerView == null) {
+            createItemsContainer(false);
+        }
+        mRecyclerView.setVisibility(VISIBLE);
+        mLayoutManager.setItemsReleased(false);
+    }
+
+    /**
+     * Called when the open/close timeline reaches its end.
+     *
+     * @param opened true if the menu was opened, false if closed
+     */
+    private void onTimelineEnd(boolean opened) {
+        if (opened) {
+            mState = STATE.OPEN;
+            sendState();
+            scrollEnabled(true);
+            if (mOnStateChangeListener != null) {
+                mOnStateChangeListener.onOpenComplete();
+            }
+        } else {
+            mState = STATE.CLOSED;
+            sendState();
+            releaseItems();
+            if (mOnStateChangeListener != null) {
+                mOnStateChangeListener.onCloseComplete();
+            }
+        }
     }
 
-    @SuppressWarnings("unused")
     private void setRippleRadius(int rippleRadius) {
+        int previousRippleRadius = mRippleRadius;
         mRippleRadius = rippleRadius;
         if (mShouldOpen && rippleRadius >= mCircleMinRadius) {
             mShouldOpen = false;
             changeMenuState();
         }
-        invalidate();
-    }
-
-    @SuppressWarnings("unused")
-    private void setVariableShadowSize(float variableShadowSize) {
-        mVariableShadowSize = variableShadowSize;
-    }
-
-    @SuppressWarnings("unused")
-    private void setAnimationCircleRadius(int animationCircleRadius) {
-        mAnimationCircleRadius = animationCircleRadius;
-        invalidate();
+        //ripple is drawn inside the main circle
+        invalidateCorner(Math.min(Math.max(previousRippleRadius, rippleRadius), mAnimationCircleRadius));
     }
 
     private class CenterImageTouchListener implements OnTouchListener {
         private boolean wasOutside = false;
         private Rect rect = new Rect();
-        private ObjectAnimator mRippleSizeAnimator;
-        private ObjectAnimator mRippleAlphaAnimator;
-
-        private void cancelRippleAnimator() {
-            if (mRippleSizeAnimator != null) {
-                mRippleSizeAnimator.cancel();
+        /**
+         * Animators are created once and restarted with new values on every touch.
+         */
+        private final IntValueAnimator mRippleSizeAnimator = new IntValueAnimator(RIPPLE_REVEAL_DURATION) {
+            @Override
+            void setValue(int value) {
+                setRippleRadius(value);
             }
-            if (mRippleAlphaAnimator != null) {
-                mRippleAlphaAnimator.cancel();
+        };
+        private final IntValueAnimator mRippleAlphaAnimator = new IntValueAnimator(RIPPLE_ALPHA_DURATION) {
+            @Override
+            void setValue(int value) {
+                setRippleAlpha(value);
             }
+        };
+
+        private void cancelRippleAnimator() {
+            mRippleSizeAnimator.cancel();
+            mRippleAlphaAnimator.cancel();
         }
 
         private void startRippleSizeAnimator(int fromRadius, int toRadius) {
-            mRippleSizeAnimator = ObjectAnimator.ofInt(CycleMenuWidget.this, RIPPLE_RADIUS_ANIMATOR_FIELD_NAME, fromRadius, toRadius).setDuration(RIPPLE_REVEAL_DURATION);
-            mRippleSizeAnimator.start();
+            mRippleSizeAnimator.start(fromRadius, toRadius);
         }
 
         private void startRippleAlphaAnimator(int fromAlpha, int toAlpha) {
-            mRippleAlphaAnimator = ObjectAnimator.ofInt(CycleMenuWidget.this, RIPPLE_ALPHA_ANIMATOR_FIELD_NAME, fromAlpha, toAlpha).setDuration(RIPPLE_ALPHA_DURATION);
-            mRippleAlphaAnimator.start();
+            mRippleAlphaAnimator.start(fromAlpha, toAlpha);
         }
 
         @Override
         public boolean onTouch(View v, MotionEvent event) {
             mShouldOpen = false;
-            if (mState == STATE.IN_OPEN_PROCESS || mState == STATE.IN_CLOSE_PROCESS) {
-                return false;
-            }
             switch (event.getActionMasked()) {
                 case MotionEvent.ACTION_DOWN:
                     cancelRippleAnimator();
@@ -1203,6 +1591,160 @@ public class CycleMenuWidget extends ViewGroup {
         }
     }
 
+    /**
+     * Animator of the int value of the widget. Value is calculated from the animated fraction
+     * and passed as primitive, so values are not boxed on every frame.
+     */
+    private abstract class IntValueAnimator implements ValueAnimator.AnimatorUpdateListener {
+
+        private final ValueAnimator mAnimator = ValueAnimator.ofFloat(0f, 1f);
+        private int mFromValue;
+        private int mToValue;
+
+        IntValueAnimator(long duration) {
+            mAnimator.setDuration(duration);
+            mAnimator.addUpdateListener(this);
+        }
+
+        void start(int fromValue, int toValue) {
+            mFromValue = fromValue;
+            mToValue = toValue;
+            mAnimator.start();
+        }
+
+        void cancel() {
+            mAnimator.cancel();
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            setValue((int) (mFromValue + (mToValue - mFromValue) * animation.getAnimatedFraction()));
+        }
+
+        abstract void setValue(int value);
+    }
+
+    /**
+     * Timeline of the open/close animation. All animated properties of the widget are calculated from the play time
+     * of the timeline in one frame callback: the reveal of the circle is followed by the roll in of the items.
+     * Menu is opened while the time runs forward and closed while it runs backward,
+     * so the animation can be reversed at any moment.
+     */
+    private class OpenCloseTimeline implements Runnable {
+        private final OvershootInterpolator mCenterImageInterpolator = new OvershootInterpolator(2);
+        private final AccelerateDecelerateInterpolator mRevealInterpolator = new AccelerateDecelerateInterpolator();
+        private boolean mRunning = false;
+        private boolean mForward;
+        private long mLastFrameTime;
+        /**
+         * Play time of the timeline in milliseconds.
+         */
+        private float mTime;
+        /**
+         * Play time of the center image rotation. It is started from the beginning of the timeline in both directions.
+         */
+        private float mCenterImageTime;
+        private int mDuration;
+        /**
+         * Items are laid out again when the menu starts opening, so roll in is prepared when the reveal is finished.
+         */
+        private boolean mRollInPrepared;
+
+        /**
+         * Start timeline or change the direction of the running one.
+         *
+         * @param forward true to open the menu, false to close
+         */
+        void start(boolean forward) {
+            if (!mRunning) {
+                mRollInPrepared = !forward;
+                mDuration = REVEAL_ANIMATION_DURATION + (forward || mLayoutManager == null ? 0 : mLayoutManager.prepareRollIn());
+                mTime = forward ? 0 : mDuration;
+                mCenterImageTime = forward ? 0 : CENTER_IMAGE_ROTATE_DURATION;
+                mLastFrameTime = AnimationUtils.currentAnimationTimeMillis();
+                mRunning = true;
+                ViewCompat.postOnAnimation(CycleMenuWidget.this, this);
+            }
+            mForward = forward;
+        }
+
+        void stop() {
+            mRunning = false;
+            removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            if (!mRunning) {
+                return;
+            }
+            long frameTime = AnimationUtils.currentAnimationTimeMillis();
+            float delta = mForward ? frameTime - mLastFrameTime : mLastFrameTime - frameTime;
+            mLastFrameTime = frameTime;
+            mTime = Math.max(0, Math.min(mDuration, mTime + delta));
+            mCenterImageTime = Math.max(0, Math.min(CENTER_IMAGE_ROTATE_DURATION, mCenterImageTime + delta));
+            if (!mRollInPrepared && mTime >= REVEAL_ANIMATION_DURATION && mLayoutManager != null) {
+                mDuration = REVEAL_ANIMATION_DURATION + mLayoutManager.prepareRollIn();
+                mRollInPrepared = true;
+            }
+            apply();
+            boolean finished = mForward
+                    ? mRollInPrepared && mTime >= mDuration && mCenterImageTime >= CENTER_IMAGE_ROTATE_DURATION
+                    : mTime <= 0 && mCenterImageTime <= 0;
+            if (finished) {
+                mRunning = false;
+                onTimelineEnd(mForward);
+            } else {
+                ViewCompat.postOnAnimation(CycleMenuWidget.this, this);
+            }
+        }
+
+        private void apply() {
+            int previousCircleRadius = mAnimationCircleRadius;
+            float revealFraction = mRevealInterpolator.getInterpolation(Math.min(1f, mTime / REVEAL_ANIMATION_DURATION));
+            mAnimationCircleRadius = (int) (mCircleMinRadius + (mOutCircleRadius - mCircleMinRadius) * revealFraction);
+            mVariableShadowSize = mShadowSize * (SHADOW_SIZE_MIN_COEFFICIENT + (1 - SHADOW_SIZE_MIN_COEFFICIENT) * revealFraction);
+            mCenterImage.setRotation(CENTER_IMAGE_OPEN_ANGLE
+                    * mCenterImageInterpolator.getInterpolation(mCenterImageTime / CENTER_IMAGE_ROTATE_DURATION));
+            //items are shown when the circle is revealed
+            if (mRecyclerView != null) {
+                mRecyclerView.setTranslationX(mTime < REVEAL_ANIMATION_DURATION ? getWidth() : 0);
+            }
+            if (mRollInPrepared && mLayoutManager != null) {
+                mLayoutManager.applyRollIn(Math.max(0, mTime - REVEAL_ANIMATION_DURATION));
+            }
+            updateShadowOutline();
+            invalidateCorner(Math.max(previousCircleRadius, mAnimationCircleRadius) + (int) Math.ceil(mShadowSize));
+        }
+    }
+
+    /**
+     * Outline of the widget in the shape of the quarter circle placed in the menu corner.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private class CornerOutlineProvider extends ViewOutlineProvider {
+        private final Path mPath = new Path();
+        private final RectF mBounds = new RectF();
+
+        @Override
+        public void getOutline(View view, Outline outline) {
+            int radius = mAnimationCircleRadius;
+            if (radius <= 0) {
+                outline.setEmpty();
+                return;
+            }
+            float centerX = mCorner.isLeftSide() ? 0 : view.getWidth();
+            float centerY = mCorner.isUpSide() ? 0 : view.getHeight();
+            float startAngle = getCornerStartAngle();
+            mBounds.set(centerX - radius, centerY - radius, centerX + radius, centerY + radius);
+            mPath.reset();
+            mPath.moveTo(centerX, centerY);
+            mPath.arcTo(mBounds, startAngle, 90f, false);
+            mPath.close();
+            outline.setConvexPath(mPath);
+        }
+    }
+
     private void checkNonNullParams(Object param, String paramName) {
         if (param == null) {
             throw new IllegalArgumentException("Parameter \"" + paramName + "\" can't be null.");
@@ -0,0 +1,69 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+/**
+ * Smooth scroller that rotates the menu on the precomputed angle.
+ * Whole rotation is sent to the recycler view as one action, so settling doesn't need additional layout passes
+ * to search the target view.
+ */
+class CycleSmoothScroller extends RecyclerView.SmoothScroller {
+
+    private final CycleLayoutManager mLayoutManager;
+    private int mScrollDistance;
+    private int mDuration;
+    private Interpolator mInterpolator;
+    /**
+     * Used to send rotation only once, even if target view is found after the action was sent.
+     */
+    private boolean mActionSent;
+
+    CycleSmoothScroller(CycleLayoutManager layoutManager) {
+        mLayoutManager = layoutManager;
+    }
+
+    /**
+     * Set rotation of the menu.
+     *
+     * @param rotation     rotation in degrees
+     * @param duration     duration of the rotation in milliseconds
+     * @param interpolator interpolator of the rotation
+     */
+    void setRotation(double rotation, int duration, Interpolator interpolator) {
+        mScrollDistance = mLayoutManager.getScrollDistanceForRotation(rotation);
+        mDuration = duration;
+        mInterpolator = interpolator;
+        setTargetPosition(mLayoutManager.getPositionAfterRotation(rotation));
+    }
+
+    @Override
+    protected void onStart() {
+        mActionSent = false;
+    }
+
+    @Override
+    protected void onStop() {
+    }
+
+    @Override
+    protected void onSeekTargetStep(int dx, int dy, RecyclerView.State state, Action action) {
+        sendRotation(action);
+    }
+
+    @Override
+    protected void onTargetFound(View targetView, RecyclerView.State state, Action action) {
+        sendRotation(action);
+    }
+
+    private void sendRotation(Action action) {
+        if (mActionSent) {
+            return;
+        }
+        mActionSent = true;
+        if (mScrollDistance != 0) {
+            action.update(0, mScrollDistance, mDuration, mInterpolator);
+        }
+    }
+}
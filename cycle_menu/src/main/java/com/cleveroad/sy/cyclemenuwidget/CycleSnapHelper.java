@@ -0,0 +1,110 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+import com.cleveroad.sy.cyclemenuwidget.core.AngularFling;
+
+/**
+ * CycleSnapHelper rotates the menu with angular fling and settles items on the nearest slots.
+ * Fling and drag end are converted to the snapped rotation before the animation starts, so the menu
+ * is rotated with {@link CycleSmoothScroller} without searching of the target view.
+ */
+class CycleSnapHelper extends RecyclerView.OnFlingListener {
+
+    /**
+     * Angular deceleration of the fling in degrees per second squared.
+     */
+    private static final double FLING_FRICTION = 600;
+    /**
+     * Rotations that are less then this angle are not animated.
+     */
+    private static final double MIN_SNAP_ROTATION = 0.1;
+
+    private final AngularFling mFling = new AngularFling(FLING_FRICTION);
+    /**
+     * Decelerate interpolator with factor 1 has constant deceleration.
+     */
+    private final Interpolator mInterpolator = new DecelerateInterpolator();
+
+    private RecyclerView mRecyclerView;
+    private CycleLayoutManager mLayoutManager;
+    /**
+     * Is true when the menu was dragged by user and has to be snapped when scroll becomes idle.
+     */
+    private boolean mDragged = false;
+
+    private final RecyclerView.OnScrollListener mScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_DRAGGING) {
+                mDragged = true;
+            } else if (newState == RecyclerView.SCROLL_STATE_IDLE && mDragged) {
+                mDragged = false;
+                settle(0);
+            }
+        }
+    };
+
+    /**
+     * Attach snap helper to the recycler view with the cycle layout manager.
+     *
+     * @param recyclerView  recycler view of the menu
+     * @param layoutManager layout manager of the recycler view
+     */
+    void attachToRecyclerView(RecyclerView recyclerView, CycleLayoutManager layoutManager) {
+        if (mRecyclerView == recyclerView) {
+            return;
+        }
+        detachFromRecyclerView();
+        mRecyclerView = recyclerView;
+        mLayoutManager = layoutManager;
+        mRecyclerView.setOnFlingListener(this);
+        mRecyclerView.addOnScrollListener(mScrollListener);
+    }
+
+    /**
+     * Detach snap helper from the recycler view. Menu is not snapped after that.
+     */
+    void detachFromRecyclerView() {
+        if (mRecyclerView == null) {
+            return;
+        }
+        mRecyclerView.removeOnScrollListener(mScrollListener);
+        mRecyclerView.setOnFlingListener(null);
+        mRecyclerView = null;
+        mLayoutManager = null;
+        mDragged = false;
+    }
+
+    @Override
+    public boolean onFling(int velocityX, int velocityY) {
+        if (mLayoutManager == null || !mLayoutManager.canScrollVertically()) {
+            return false;
+        }
+        settle(mLayoutManager.getRotationVelocity(velocityX, velocityY));
+        return true;
+    }
+
+    /**
+     * Rotate the menu with angular velocity and snap it to the nearest slot.
+     *
+     * @param velocity angular velocity in degrees per second
+     */
+    private void settle(double velocity) {
+        mDragged = false;
+        if (!mLayoutManager.canScrollVertically()) {
+            return;
+        }
+        double rotation = mLayoutManager.getSnapRotation(mFling.getFlingRotation(velocity));
+        if (Math.abs(rotation) < MIN_SNAP_ROTATION) {
+            return;
+        }
+        CycleSmoothScroller smoothScroller = new CycleSmoothScroller(mLayoutManager);
+        smoothScroller.setRotation(rotation, mFling.getDuration(rotation, velocity), mInterpolator);
+        if (smoothScroller.getTargetPosition() != RecyclerView.NO_POSITION) {
+            mLayoutManager.startSmoothScroll(smoothScroller);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.support.design.widget.FloatingActionButton;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * ItemSizeCache keeps measured sizes of the item button, so the button is inflated and measured once per theme and density
+ * instead of once per menu widget. Themes are weakly referenced and are removed with their contexts.
+ */
+class ItemSizeCache {
+
+    private static final int MEASURE_MAX_SIZE = 1000;
+
+    private static final Map<Resources.Theme, SparseIntArray> sCache = new WeakHashMap<>();
+
+    private ItemSizeCache() {
+    }
+
+    /**
+     * Get measured size of the item button from the cache or inflate and measure it.
+     *
+     * @param parent parent of the item views, used for context and layout params
+     * @return max of measured width and height of the item button
+     */
+    static int getItemSize(ViewGroup parent) {
+        Context context = parent.getContext();
+        int density = context.getResources().getDisplayMetrics().densityDpi;
+        SparseIntArray sizes = sCache.get(context.getTheme());
+        if (sizes == null) {
+            sizes = new SparseIntArray();
+            sCache.put(context.getTheme(), sizes);
+        }
+        int size = sizes.get(density, -1);
+        if (size < 0) {
+            size = measureItem(parent);
+            sizes.put(density, size);
+        }
+        return size;
+    }
+
+    private static int measureItem(ViewGroup parent) {
+        FloatingActionButton buttonItem = (FloatingActionButton) LayoutInflater.from(parent.getContext()).inflate(R.layout.cm_item_fab, parent, false);
+        int buttonSpec = View.MeasureSpec.makeMeasureSpec(MEASURE_MAX_SIZE, View.MeasureSpec.AT_MOST);
+        buttonItem.measure(buttonSpec, buttonSpec);
+        int measuredItemWidth = buttonItem.getMeasuredWidth();
+        int measuredItemHeight = buttonItem.getMeasuredHeight();
+        return measuredItemWidth > measuredItemHeight ? measuredItemWidth : measuredItemHeight;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.support.v7.util.DiffUtil;
+
+import java.util.List;
+
+/**
+ * Calculates difference between two lists of menu items. Items are the same if they have the same id.
+ * Menu items are immutable, so contents are the same if the icon is the same object and enabled state is the same.
+ * Changed attributes are passed to the adapter as payload.
+ */
+class MenuItemsDiffCallback extends DiffUtil.Callback {
+
+    private final List<CycleMenuItem> mOldItems;
+    private final List<CycleMenuItem> mNewItems;
+
+    MenuItemsDiffCallback(List<CycleMenuItem> oldItems, List<CycleMenuItem> newItems) {
+        mOldItems = oldItems;
+        mNewItems = newItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return mOldItems.get(oldItemPosition).getId() == mNewItems.get(newItemPosition).getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        return getChanges(oldItemPosition, newItemPosition) == 0;
+    }
+
+    @Override
+    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+        return getChanges(oldItemPosition, newItemPosition);
+    }
+
+    /**
+     * @return combination of the adapter payload flags for changed attributes
+     */
+    private int getChanges(int oldItemPosition, int newItemPosition) {
+        CycleMenuItem oldItem = mOldItems.get(oldItemPosition);
+        CycleMenuItem newItem = mNewItems.get(newItemPosition);
+        int changes = 0;
+        if (oldItem.getIcon() != newItem.getIcon()) {
+            changes |= RecyclerMenuAdapter.PAYLOAD_ICON;
+        }
+        if (oldItem.isEnabled() != newItem.isEnabled()) {
+            changes |= RecyclerMenuAdapter.PAYLOAD_ENABLED;
+        }
+        return changes;
+    }
+}
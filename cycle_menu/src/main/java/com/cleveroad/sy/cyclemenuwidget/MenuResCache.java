@@ -0,0 +1,106 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.MenuRes;
+import android.support.v7.view.menu.MenuBuilder;
+import android.util.SparseArray;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * MenuResCache keeps parsed menu resources, so menu xml is inflated once per theme for all widgets with the same menu.
+ * Icons are kept as constant states and each call gets new drawables, because drawables can't be shared between views.
+ */
+class MenuResCache {
+
+    private static final Map<Resources.Theme, SparseArray<MenuEntry[]>> sCache = new WeakHashMap<>();
+
+    private MenuResCache() {
+    }
+
+    /**
+     * Get menu items from the cache or parse the menu resource.
+     *
+     * @param context   context with the theme of the menu
+     * @param menuResId menu resource
+     * @return unmodifiable list of new menu items
+     */
+    static List<CycleMenuItem> getMenuItems(Context context, @MenuRes int menuResId) {
+        SparseArray<MenuEntry[]> menus = sCache.get(context.getTheme());
+        if (menus == null) {
+            menus = new SparseArray<>();
+            sCache.put(context.getTheme(), menus);
+        }
+        MenuEntry[] entries = menus.get(menuResId);
+        if (entries == null) {
+            Menu menu = inflateMenu(context, menuResId);
+            entries = createEntries(menu);
+            if (entries == null) {
+                //icons without constant state can't be shared, so this menu is not cached
+                List<CycleMenuItem> items = new ArrayList<>(menu.size());
+                for (int i = 0; i < menu.size(); i++) {
+                    MenuItem menuItem = menu.getItem(i);
+                    items.add(new CycleMenuItem(menuItem.getItemId(), menuItem.getIcon(), menuItem.isEnabled()));
+                }
+                return Collections.unmodifiableList(items);
+            }
+            menus.put(menuResId, entries);
+        }
+        Resources resources = context.getResources();
+        List<CycleMenuItem> items = new ArrayList<>(entries.length);
+        for (MenuEntry entry : entries) {
+            Drawable icon = entry.mIconState != null ? entry.mIconState.newDrawable(resources) : null;
+            items.add(new CycleMenuItem(entry.mId, icon, entry.mEnabled));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    @SuppressLint("RestrictedApi")
+    private static Menu inflateMenu(Context context, @MenuRes int menuResId) {
+        Menu menu = new MenuBuilder(context);
+        new MenuInflater(context).inflate(menuResId, menu);
+        return menu;
+    }
+
+    /**
+     * @return entries of the menu items or null if any icon has no constant state
+     */
+    private static MenuEntry[] createEntries(Menu menu) {
+        MenuEntry[] entries = new MenuEntry[menu.size()];
+        for (int i = 0; i < menu.size(); i++) {
+            MenuItem menuItem = menu.getItem(i);
+            Drawable icon = menuItem.getIcon();
+            Drawable.ConstantState iconState = null;
+            if (icon != null) {
+                iconState = icon.getConstantState();
+                if (iconState == null) {
+                    return null;
+                }
+            }
+            entries[i] = new MenuEntry(menuItem.getItemId(), iconState, menuItem.isEnabled());
+        }
+        return entries;
+    }
+
+    private static class MenuEntry {
+        private final int mId;
+        private final Drawable.ConstantState mIconState;
+        private final boolean mEnabled;
+
+        MenuEntry(int id, Drawable.ConstantState iconState, boolean enabled) {
+            mId = id;
+            mIconState = iconState;
+            mEnabled = enabled;
+        }
+    }
+}
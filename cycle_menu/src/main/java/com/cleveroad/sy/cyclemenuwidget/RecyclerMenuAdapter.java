@@ -2,7 +2,11 @@ package com.cleveroad.sy.cyclemenuwidget;
 
 import android.content.res.ColorStateList;
 import android.graphics.PorterDuff;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.VisibleForTesting;
 import android.support.design.widget.FloatingActionButton;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -11,12 +15,39 @@ import android.view.ViewGroup;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Inner adapter for menu mItems.
  */
 class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemHolder> implements OnMenuItemClickListener {
 
+    /**
+     * Payloads of the item change. Payload is a combination of these flags.
+     */
+    static final int PAYLOAD_ICON = 1;
+    static final int PAYLOAD_ENABLED = 1 << 1;
+    static final int PAYLOAD_TINT = 1 << 2;
+
+    /**
+     * Executor for the diff calculation of large menus, shared by all adapters.
+     */
+    private static Executor sDiffExecutor;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * Generation of the last items update. Background diff results of the older generations are discarded.
+     */
+    private int mMaxScheduledGeneration;
+    /**
+     * Depth of the nested item updates. Notifications are not sent while update is in progress.
+     */
+    private int mUpdateDepth;
+    private List<CycleMenuItem> mItemsBeforeUpdate;
+    private boolean mItemsChangedInUpdate;
+    private boolean mTintChangedInUpdate;
+
     private List<CycleMenuItem> mItems;
     private ColorStateList mItemsBackgroundTint;
     private boolean defaultTintColorChanged = false;
@@ -26,6 +57,7 @@ class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemH
 
     RecyclerMenuAdapter() {
         mItems = new ArrayList<>();
+        setHasStableIds(true);
     }
 
     /**
@@ -34,17 +66,145 @@ class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemH
      * @param scrollType the scroll type BASIC, ENDLESS
      */
     void setScrollType(CycleMenuWidget.SCROLL scrollType) {
-        mScrollType = scrollType;
+        if (mScrollType != scrollType) {
+            mScrollType = scrollType;
+            //count of items is changed
+            notifyDataSetChanged();
+        }
     }
 
     /**
-     * Set items Collection for the adapter
+     * Set items Collection for the adapter. Old and new items are compared by id and only changed items are notified.
      *
      * @param items collections to be set to adapter
      */
     void setItems(Collection<CycleMenuItem> items) {
-        mItems.clear();
-        mItems.addAll(items);
+        discardScheduledItems();
+        List<CycleMenuItem> oldItems = mItems;
+        mItems = new ArrayList<>(items);
+        if (isInUpdate()) {
+            return;
+        }
+        if (mScrollType == CycleMenuWidget.SCROLL.ENDLESS) {
+            //positions of the endless menu are repeated, so they can't be notified separately
+            notifyDataSetChanged();
+        } else {
+            DiffUtil.calculateDiff(new MenuItemsDiffCallback(oldItems, mItems)).dispatchUpdatesTo(this);
+        }
+    }
+
+    /**
+     * Set items Collection for the adapter. Difference with the current items is calculated on the background thread
+     * and applied on the main thread. Result is discarded if items are changed again before it is applied.
+     *
+     * @param items            collections to be set to adapter
+     * @param onItemsCommitted called on the main thread when new items are set to the adapter
+     */
+    void setItemsAsync(Collection<CycleMenuItem> items, final Runnable onItemsCommitted) {
+        if (isInUpdate()) {
+            //items are notified when update is finished
+            setItems(items);
+            return;
+        }
+        final int generation = ++mMaxScheduledGeneration;
+        //snapshots of the lists, current list can be changed while diff is calculated
+        final List<CycleMenuItem> oldItems = new ArrayList<>(mItems);
+        final List<CycleMenuItem> newItems = new ArrayList<>(items);
+        getDiffExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new MenuItemsDiffCallback(oldItems, newItems));
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mMaxScheduledGeneration) {
+                            return;
+                        }
+                        mItems = newItems;
+                        if (isInUpdate()) {
+                            //items are not changed in update yet, so they are notified with the update
+                            mItemsChangedInUpdate = true;
+                            onItemsCommitted.run();
+                            return;
+                        }
+                        if (mScrollType == CycleMenuWidget.SCROLL.ENDLESS) {
+                            notifyDataSetChanged();
+                        } else {
+                            result.dispatchUpdatesTo(RecyclerMenuAdapter.this);
+                        }
+                        onItemsCommitted.run();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Start update of the items. Items changes are not notified until {@link #endUpdate()} is called.
+     * Updates can be nested.
+     */
+    void beginUpdate() {
+        if (mUpdateDepth++ == 0) {
+            mItemsBeforeUpdate = new ArrayList<>(mItems);
+            mItemsChangedInUpdate = false;
+            mTintChangedInUpdate = false;
+        }
+    }
+
+    /**
+     * Finish update of the items. When the outer update is finished all changes are notified at once.
+     */
+    void endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate() is called without beginUpdate()");
+        }
+        if (--mUpdateDepth > 0) {
+            return;
+        }
+        List<CycleMenuItem> oldItems = mItemsBeforeUpdate;
+        mItemsBeforeUpdate = null;
+        if (mScrollType == CycleMenuWidget.SCROLL.ENDLESS) {
+            if (mItemsChangedInUpdate || mTintChangedInUpdate) {
+                notifyDataSetChanged();
+            }
+            return;
+        }
+        if (mItemsChangedInUpdate) {
+            DiffUtil.calculateDiff(new MenuItemsDiffCallback(oldItems, mItems)).dispatchUpdatesTo(this);
+        }
+        if (mTintChangedInUpdate) {
+            notifyItemRangeChanged(0, mItems.size(), PAYLOAD_TINT);
+        }
+    }
+
+    boolean isInUpdate() {
+        return mUpdateDepth > 0;
+    }
+
+    /**
+     * Discard background diff results that are not applied yet, they are calculated for the outdated items.
+     * While update is in progress results are discarded on the first change of the items.
+     */
+    private void discardScheduledItems() {
+        if (isInUpdate()) {
+            if (mItemsChangedInUpdate) {
+                return;
+            }
+            mItemsChangedInUpdate = true;
+        }
+        mMaxScheduledGeneration++;
+    }
+
+    @VisibleForTesting
+    static synchronized void setDiffExecutor(Executor executor) {
+        sDiffExecutor = executor;
+    }
+
+    private static synchronized Executor getDiffExecutor() {
+        if (sDiffExecutor == null) {
+            sDiffExecutor = Executors.newSingleThreadExecutor();
+        }
+        return sDiffExecutor;
     }
 
     /**
@@ -65,6 +225,12 @@ class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemH
     void setItemsBackgroundTint(ColorStateList itemsBackgroundTint) {
         defaultTintColorChanged = true;
         mItemsBackgroundTint = itemsBackgroundTint;
+        if (isInUpdate()) {
+            mTintChangedInUpdate = true;
+            return;
+        }
+        //only tint of the bound views is changed
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_TINT);
     }
 
     /**
@@ -73,7 +239,10 @@ class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemH
      * @param items collections that need to be added to adapter
      */
     void addItems(Collection<CycleMenuItem> items) {
+        discardScheduledItems();
+        int positionStart = mItems.size();
         mItems.addAll(items);
+        notifyItemsAdded(positionStart, items.size());
     }
 
     /**
@@ -82,24 +251,79 @@ class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemH
      * @param item that need to add to the adapter
      */
     void addItem(CycleMenuItem item) {
+        discardScheduledItems();
         mItems.add(item);
+        notifyItemsAdded(mItems.size() - 1, 1);
+    }
+
+    private void notifyItemsAdded(int positionStart, int itemCount) {
+        if (isInUpdate()) {
+            return;
+        }
+        if (mScrollType == CycleMenuWidget.SCROLL.ENDLESS) {
+            notifyDataSetChanged();
+        } else {
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
     }
 
     @Override
     public ItemHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.cm_item_fab, parent, false);
+        ItemHolder holder = new ItemHolder(view, this);
         if (defaultTintColorChanged) {
-            //noinspection RedundantCast
-            ((FloatingActionButton) view).setBackgroundTintList(mItemsBackgroundTint);
+            holder.applyBackgroundTint(mItemsBackgroundTint);
         }
-        return new ItemHolder(view, this);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(ItemHolder holder, final int position) {
+        CycleMenuItem item = mItems.get(getRealPosition(position));
+        //holder can be created by the adapter of other menu if recycled view pool is shared
+        holder.mOnMenuItemClickListener = this;
+        holder.itemView.setId(item.getId());
+        bindChanges(holder, item, PAYLOAD_ICON | PAYLOAD_ENABLED | PAYLOAD_TINT);
+    }
+
+    @Override
+    public void onBindViewHolder(ItemHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int changes = 0;
+        for (Object payload : payloads) {
+            changes |= (Integer) payload;
+        }
+        bindChanges(holder, mItems.get(getRealPosition(position)), changes);
+    }
+
+    /**
+     * Apply changed attributes of the item to the view.
+     *
+     * @param changes combination of the payload flags
+     */
+    private void bindChanges(ItemHolder holder, CycleMenuItem item, int changes) {
         FloatingActionButton button = (FloatingActionButton) holder.itemView;
-        button.setImageDrawable(mItems.get(getRealPosition(position)).getIcon());
-        holder.itemView.setId(mItems.get(getRealPosition(position)).getId());
+        if ((changes & PAYLOAD_ICON) != 0) {
+            button.setImageDrawable(item.getIcon());
+        }
+        if ((changes & PAYLOAD_ENABLED) != 0) {
+            button.setEnabled(item.isEnabled());
+        }
+        if ((changes & PAYLOAD_TINT) != 0) {
+            holder.applyBackgroundTint(defaultTintColorChanged ? mItemsBackgroundTint : holder.mDefaultBackgroundTint);
+        }
+    }
+
+    /**
+     * Id of the item is unique for each copy of the item in ENDLESS scroll type.
+     */
+    @Override
+    public long getItemId(int position) {
+        int copyIndex = position / mItems.size();
+        return ((long) copyIndex << 32) | (mItems.get(getRealPosition(position)).getId() & 0xffffffffL);
     }
 
     @Override
@@ -142,14 +366,35 @@ class RecyclerMenuAdapter extends RecyclerView.Adapter<RecyclerMenuAdapter.ItemH
     static class ItemHolder extends RecyclerView.ViewHolder implements View.OnClickListener, View.OnLongClickListener {
 
         private OnMenuItemClickListener mOnMenuItemClickListener;
+        /**
+         * Tint of the button from the item layout.
+         */
+        private final ColorStateList mDefaultBackgroundTint;
+        private ColorStateList mBackgroundTint;
 
         ItemHolder(View itemView, OnMenuItemClickListener listener) {
             super(itemView);
             mOnMenuItemClickListener = listener;
+            //noinspection RedundantCast
+            mDefaultBackgroundTint = ((FloatingActionButton) itemView).getBackgroundTintList();
+            mBackgroundTint = mDefaultBackgroundTint;
             itemView.setOnClickListener(this);
             itemView.setOnLongClickListener(this);
         }
 
+        /**
+         * Set background tint of the button if it differs from the applied one.
+         *
+         * @param backgroundTint the tint to apply
+         */
+        void applyBackgroundTint(ColorStateList backgroundTint) {
+            if (mBackgroundTint != backgroundTint) {
+                mBackgroundTint = backgroundTint;
+                //noinspection RedundantCast
+                ((FloatingActionButton) itemView).setBackgroundTintList(backgroundTint);
+            }
+        }
+
         @Override
         public void onClick(View view) {
             //Resend click to the outer menu item click listener with provided item position. if scrollType is ENDLESS need to getRealPosition from the position.
@@ -0,0 +1,82 @@
+package com.cleveroad.sy.cyclemenuwidget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RadialGradient;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.support.v4.util.LruCache;
+
+/**
+ * ShadowAtlas keeps quarter circle shadows rendered into bitmaps. Bitmaps are shared by all menu widgets
+ * with the same shadow colors and size, each widget draws the bitmap scaled to its current circle radius.
+ * Shadow is rendered in the right top corner of the bitmap, as the shadow path of the widget.
+ */
+class ShadowAtlas {
+
+    /**
+     * Max size of all cached shadow bitmaps in bytes.
+     */
+    private static final int CACHE_MAX_SIZE = 4 * 1024 * 1024;
+
+    private static final LruCache<String, Bitmap> sCache = new LruCache<String, Bitmap>(CACHE_MAX_SIZE) {
+        @Override
+        protected int sizeOf(String key, Bitmap bitmap) {
+            return bitmap.getRowBytes() * bitmap.getHeight();
+        }
+    };
+
+    private ShadowAtlas() {
+    }
+
+    /**
+     * Get shadow bitmap from the cache or render it.
+     *
+     * @param radius      radius of the circle around which shadow is drawn
+     * @param shadowSize  size of the shadow
+     * @param startColor  start color of the shadow gradient
+     * @param middleColor middle color of the shadow gradient
+     * @param endColor    end color of the shadow gradient
+     * @return bitmap with the side equal to radius + shadowSize
+     */
+    static Bitmap getShadow(int radius, int shadowSize, int startColor, int middleColor, int endColor) {
+        String key = radius + "_" + shadowSize + "_" + startColor + "_" + middleColor + "_" + endColor;
+        Bitmap bitmap = sCache.get(key);
+        if (bitmap == null) {
+            bitmap = renderShadow(radius, shadowSize, startColor, middleColor, endColor);
+            sCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    private static Bitmap renderShadow(int radius, int shadowSize, int startColor, int middleColor, int endColor) {
+        int size = radius + shadowSize;
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        RectF innerBounds = new RectF(size - radius, -radius, size + radius, radius);
+        RectF outerBounds = new RectF(innerBounds);
+        outerBounds.inset(-shadowSize, -shadowSize);
+        Path path = new Path();
+        path.setFillType(Path.FillType.EVEN_ODD);
+        path.moveTo(size - radius, 0);
+        path.rLineTo(-shadowSize, 0);
+        // outer arc
+        path.arcTo(outerBounds, 180f, -90f, false);
+        // inner arc
+        path.arcTo(innerBounds, 90f, 90f, false);
+
+        float startRatio = (float) radius / size;
+        float midRatio = startRatio + ((1f - startRatio) / 2f);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setShader(new RadialGradient(size, 0, size,
+                new int[]{0, startColor, middleColor, endColor},
+                new float[]{0f, startRatio, midRatio, 1f},
+                Shader.TileMode.CLAMP));
+        canvas.drawPath(path, paint);
+        return bitmap;
+    }
+}
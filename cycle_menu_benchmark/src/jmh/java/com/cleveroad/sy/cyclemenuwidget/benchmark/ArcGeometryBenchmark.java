@@ -0,0 +1,133 @@
+package com.cleveroad.sy.cyclemenuwidget.benchmark;
+
+import com.cleveroad.sy.cyclemenuwidget.core.ArcGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the layout and scroll math of the menu.
+ * Each benchmark works with the window of items that is visible on the quarter of circle and moves this window
+ * through all items of the menu, as it happens while user scrolls the menu.
+ */
+@State(Scope.Thread)
+public class ArcGeometryBenchmark {
+
+    private static final int MENU_SIZE = 600;
+    private static final int ITEM_SIZE = 100;
+    private static final int SCROLL_DELTA = 7;
+
+    @Param({"LEFT_TOP", "RIGHT_TOP", "LEFT_BOTTOM", "RIGHT_BOTTOM"})
+    public String corner;
+
+    @Param({"3", "20", "1000", "10000"})
+    public int itemCount;
+
+    @Param({"BASIC", "ENDLESS"})
+    public String scrollType;
+
+    private ArcGeometry mGeometry;
+
+    /**
+     * Count of items in adapter. Is Integer.MAX_VALUE for the ENDLESS scroll.
+     */
+    private int mAdapterItemCount;
+    /**
+     * First adapter position of the menu items.
+     */
+    private int mStartPosition;
+    private int mVisibleCount;
+    private int mFirstPosition;
+
+    @Setup
+    public void setUp() {
+        mGeometry = new ArcGeometry(true, 0);
+        mGeometry.setCorner(corner.startsWith("LEFT"), corner.endsWith("TOP"));
+        mGeometry.setSize(MENU_SIZE, MENU_SIZE);
+        mGeometry.initialize(ITEM_SIZE);
+        if ("ENDLESS".equals(scrollType)) {
+            mAdapterItemCount = Integer.MAX_VALUE;
+            mStartPosition = Integer.MAX_VALUE / 2 + (itemCount - Integer.MAX_VALUE / 2 % itemCount);
+        } else {
+            mAdapterItemCount = itemCount;
+            mStartPosition = 0;
+        }
+        mVisibleCount = Math.min((int) Math.ceil(90 / mGeometry.getAnglePerItem()) + 1, itemCount);
+        mFirstPosition = mStartPosition;
+        mGeometry.setAnchor(mFirstPosition, 90 - mGeometry.getAnglePerItem() / 2.0);
+    }
+
+    /**
+     * Calculation of radius, angle per item and positions of the visible items, as it is done once per layout pass.
+     */
+    @Benchmark
+    public void layoutPass(Blackhole blackhole) {
+        mGeometry.invalidate();
+        mGeometry.initialize(ITEM_SIZE);
+        mGeometry.setAnchor(mFirstPosition, 90 - mGeometry.getAnglePerItem() / 2.0);
+        computeVisibleSlots(blackhole);
+        moveWindow();
+    }
+
+    /**
+     * Calculation of positions of the visible items, window of items is moved by one item per invocation.
+     */
+    @Benchmark
+    public void slotComputation(Blackhole blackhole) {
+        computeVisibleSlots(blackhole);
+        moveWindow();
+    }
+
+    /**
+     * One scroll frame: scroll distance is converted to the angle, positions of the visible items are updated.
+     */
+    @Benchmark
+    public void scrollFrame(Blackhole blackhole) {
+        double angle = mGeometry.scrollDeltaToAngle(SCROLL_DELTA);
+        mGeometry.rotate(angle);
+        computeVisibleSlots(blackhole);
+        blackhole.consume(mGeometry.getAngle(mFirstPosition));
+    }
+
+    /**
+     * Conversion of the scroll distance to the angle.
+     */
+    @Benchmark
+    public double scrollDeltaToAngle() {
+        return mGeometry.scrollDeltaToAngle(SCROLL_DELTA);
+    }
+
+    /**
+     * Clamping of the scroll on both ends of the visible window.
+     */
+    @Benchmark
+    public void checkEndsReached(Blackhole blackhole) {
+        int lastPosition = mFirstPosition + mVisibleCount - 1;
+        blackhole.consume(mGeometry.checkEndsReached(SCROLL_DELTA, mFirstPosition, 10, 10 + ITEM_SIZE,
+                lastPosition, MENU_SIZE - ITEM_SIZE, MENU_SIZE, mAdapterItemCount));
+        blackhole.consume(mGeometry.checkEndsReached(-SCROLL_DELTA, mFirstPosition, 10, 10 + ITEM_SIZE,
+                lastPosition, MENU_SIZE - ITEM_SIZE, MENU_SIZE, mAdapterItemCount));
+        moveWindow();
+    }
+
+    private void computeVisibleSlots(Blackhole blackhole) {
+        for (int position = mFirstPosition, last = mFirstPosition + mVisibleCount; position < last; position++) {
+            blackhole.consume(mGeometry.getCenterX(position));
+            blackhole.consume(mGeometry.getCenterY(position));
+        }
+    }
+
+    /**
+     * Move visible window by one item through all items of the menu.
+     */
+    private void moveWindow() {
+        mFirstPosition++;
+        if (mFirstPosition + mVisibleCount > mStartPosition + itemCount) {
+            mFirstPosition = mStartPosition;
+        }
+    }
+}
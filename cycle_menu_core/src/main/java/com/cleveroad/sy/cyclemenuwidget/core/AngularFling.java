@@ -0,0 +1,70 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+/**
+ * Angular fling of the menu with constant friction and snapping to the item slots.
+ * Menu rotates with the initial angular velocity and decelerates until it stops, the stop angle is moved
+ * to the nearest slot where item is placed at rest (multiples of angle per item).
+ */
+public class AngularFling {
+
+    private static final int MIN_DURATION = 150;
+    private static final int MAX_DURATION = 1500;
+
+    /**
+     * Angular deceleration in degrees per second squared.
+     */
+    private final double mFriction;
+
+    /**
+     * @param friction angular deceleration in degrees per second squared
+     */
+    public AngularFling(double friction) {
+        mFriction = friction;
+    }
+
+    /**
+     * @param velocity initial angular velocity in degrees per second
+     * @return angle in degrees the menu rotates until friction stops it
+     */
+    public double getFlingRotation(double velocity) {
+        return Math.signum(velocity) * velocity * velocity / (2 * mFriction);
+    }
+
+    /**
+     * Calculate rotation that places item on the nearest slot after rotation.
+     *
+     * @param rotation     rotation in degrees that need to be snapped
+     * @param itemAngle    current angle of any item in degrees
+     * @param restAngle    angle of any slot where item is placed at rest
+     * @param anglePerItem angle between two slots
+     * @return snapped rotation in degrees
+     */
+    public static double snapRotation(double rotation, double itemAngle, double restAngle, double anglePerItem) {
+        if (anglePerItem <= 0) {
+            return rotation;
+        }
+        double target = itemAngle + rotation;
+        double snappedTarget = restAngle + Math.round((target - restAngle) / anglePerItem) * anglePerItem;
+        return snappedTarget - itemAngle;
+    }
+
+    /**
+     * Calculate duration of the rotation. If rotation has the same direction as velocity then duration
+     * is calculated so that menu starts with the velocity and stops with constant deceleration.
+     * Otherwise duration of the rotation from rest with friction is used.
+     *
+     * @param rotation rotation in degrees
+     * @param velocity initial angular velocity in degrees per second
+     * @return duration in milliseconds
+     */
+    public int getDuration(double rotation, double velocity) {
+        double distance = Math.abs(rotation);
+        double duration;
+        if (velocity != 0 && Math.signum(velocity) == Math.signum(rotation)) {
+            duration = 2 * distance / Math.abs(velocity);
+        } else {
+            duration = Math.sqrt(2 * distance / mFriction);
+        }
+        return (int) Math.max(MIN_DURATION, Math.min(MAX_DURATION, duration * 1000));
+    }
+}
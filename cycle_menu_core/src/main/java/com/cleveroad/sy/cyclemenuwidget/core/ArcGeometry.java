@@ -0,0 +1,216 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+/**
+ * Geometry of the items placed on the arc in the corner of the menu.
+ * Calculates radius and angle per item, positions of the items and available scroll when the end of the menu is reached.
+ */
+public class ArcGeometry {
+
+    /**
+     * Sizes of the items with margins, which are shared with the calculation of the menu size.
+     */
+    private final MenuRadiusCalculator mRadiusCalculator;
+
+    private boolean mLeftSide = false;
+    private boolean mUpSide = true;
+    private int mWidth;
+    private int mHeight;
+
+    /**
+     * Calculated radius of the cycle menu.
+     */
+    private int mRadius = 10;
+    /**
+     * Angle that view item has per own diameter.
+     */
+    private double mAnglePerItem = -1;
+    /**
+     * Calculated margin of each item. Used to calculate animation shift in rollInAnimation.
+     */
+    private double mMarginAngle;
+    /**
+     * Half of the margin from item side. Is used to calculate item scroll possibility.
+     */
+    private int mHalfAdditionalMargin = 0;
+
+    private final ArcSlotTable mSlotTable = new ArcSlotTable();
+
+    public ArcGeometry(boolean lollipop, float preLollipopAdditionalButtonsMargin) {
+        this(new MenuRadiusCalculator(lollipop, preLollipopAdditionalButtonsMargin));
+    }
+
+    public ArcGeometry(MenuRadiusCalculator radiusCalculator) {
+        mRadiusCalculator = radiusCalculator;
+    }
+
+    /**
+     * Set corner in which the menu is placed.
+     *
+     * @param leftSide true if corner is on the left side
+     * @param upSide   true if corner is on the up side
+     */
+    public void setCorner(boolean leftSide, boolean upSide) {
+        mLeftSide = leftSide;
+        mUpSide = upSide;
+    }
+
+    /**
+     * Set size of the items container.
+     */
+    public void setSize(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * @return true if radius and angle per item are calculated
+     */
+    public boolean isInitialized() {
+        return mAnglePerItem >= 0;
+    }
+
+    /**
+     * Reset calculated radius and angle per item. They will be recalculated with next {@link #initialize(int)} call.
+     */
+    public void invalidate() {
+        mAnglePerItem = -1;
+    }
+
+    /**
+     * Calculate radius of the menu and angle per item.
+     *
+     * @param itemSize measured size of the item
+     */
+    public void initialize(int itemSize) {
+        int minSide = mWidth > mHeight ? mHeight : mWidth;
+        mRadius = mRadiusCalculator.calculateArcRadius(minSide, itemSize);
+        //Calculate margins between the items.
+        double circleLength = 2 * Math.PI * mRadius;
+        double anglePerLength = 360.0 * mRadiusCalculator.getItemLength(itemSize) / circleLength;
+        double anglePerLengthWithMargins = 360.0 * mRadiusCalculator.getItemLengthWithMargins(itemSize) / circleLength;
+        mMarginAngle = (anglePerLengthWithMargins - anglePerLength) / 2.0;
+        mHalfAdditionalMargin = mRadiusCalculator.getHalfAdditionalMargin(itemSize);
+        mAnglePerItem = anglePerLengthWithMargins;
+        mSlotTable.setup(mRadius, mAnglePerItem);
+    }
+
+    /**
+     * Set anchor item from which all other items angles are calculated.
+     *
+     * @param position position of the anchor item in adapter
+     * @param angle    angle of the anchor item in degrees
+     */
+    public void setAnchor(int position, double angle) {
+        mSlotTable.setAnchor(position, angle);
+    }
+
+    /**
+     * Convert scroll distance to the angle the menu need to be rotated on.
+     *
+     * @param delta scroll distance
+     * @return approximately calculated angle in degrees
+     */
+    public double scrollDeltaToAngle(int delta) {
+        //Length of the circle of the menu.
+        double circleLength = 2 * Math.PI * mRadius;
+        return 360.0 * delta / circleLength;
+    }
+
+    /**
+     * Convert angle of rotation to the scroll distance.
+     *
+     * @param angle angle in degrees
+     * @return scroll distance which is converted to this angle by {@link #scrollDeltaToAngle(int)}
+     */
+    public int angleToScrollDelta(double angle) {
+        return (int) Math.round(angle * 2 * Math.PI * mRadius / 360.0);
+    }
+
+    /**
+     * Rotate all items with angle.
+     *
+     * @param angle angle in degrees
+     */
+    public void rotate(double angle) {
+        mSlotTable.rotate(angle);
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return angle of the item in degrees
+     */
+    public double getAngle(int position) {
+        return mSlotTable.getAngle(position);
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return x coordinate of the item center in the container
+     */
+    public double getCenterX(int position) {
+        double x = mSlotTable.getX(position);
+        return mLeftSide ? x : mWidth - x;
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return y coordinate of the item center in the container
+     */
+    public double getCenterY(int position) {
+        double y = mSlotTable.getY(position);
+        return mUpSide ? y : mHeight - y;
+    }
+
+    /**
+     * Method to check if the end is reached with scrolling
+     *
+     * @param dy            value to scroll
+     * @param firstPosition position of the first attached item
+     * @param firstLeft     left bound of the first attached item
+     * @param firstRight    right bound of the first attached item
+     * @param lastPosition  position of the last attached item
+     * @param lastTop       top bound of the last attached item
+     * @param lastBottom    bottom bound of the last attached item
+     * @param itemCount     count of items in adapter
+     * @return available value to scroll.
+     */
+    public int checkEndsReached(int dy, int firstPosition, int firstLeft, int firstRight,
+                                int lastPosition, int lastTop, int lastBottom, int itemCount) {
+        int delta = 0;
+        if (dy < 0) { //scroll to bottom if menu corner is top side, to up if menu corner is bottom side
+            if (lastPosition < itemCount - 1) { //if last item not reached
+                delta = dy;
+            } else { //if last item reached
+                if (!mUpSide) { //scroll from bottom to up
+                    delta = Math.max(mHeight - mHalfAdditionalMargin - lastBottom, dy);
+                } else { //scroll from up to down
+                    delta = Math.max(lastTop - mHalfAdditionalMargin, dy);
+                }
+            }
+        } else if (dy > 0) { //scroll to up if menu corner is top side, to bottom if menu corner is bottom side
+            if (firstPosition > 0) { //if first item not reached
+                delta = dy;
+            } else {
+                //if first item reached
+                if (mLeftSide) {
+                    delta = Math.min(mHalfAdditionalMargin - firstLeft, dy);
+                } else {
+                    delta = Math.min(firstRight + mHalfAdditionalMargin - mWidth, dy);
+                }
+            }
+        }
+        return -delta;
+    }
+
+    public int getRadius() {
+        return mRadius;
+    }
+
+    public double getAnglePerItem() {
+        return mAnglePerItem;
+    }
+
+    public double getMarginAngle() {
+        return mMarginAngle;
+    }
+}
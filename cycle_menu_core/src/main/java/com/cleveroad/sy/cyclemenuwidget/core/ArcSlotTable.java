@@ -0,0 +1,142 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+/**
+ * Geometry table for the items placed on the arc.
+ * Items are placed with the same angle step, so the angle of each item can be expressed as
+ * anchorAngle - (position - anchorPosition) * anglePerItem.
+ * Table precomputes cos/sin of the slot steps once per radius and anglePerItem pair and keeps cos/sin of the anchor angle,
+ * so item centers are calculated without Math.cos/Math.sin calls. Scroll rotates the anchor incrementally.
+ */
+public class ArcSlotTable {
+
+    /**
+     * Max count of the precomputed slots. Items on the quarter of circle never exceed this value.
+     */
+    private static final int MAX_SLOTS_COUNT = 512;
+
+    /**
+     * Count of incremental rotations after which the anchor cos/sin will be recalculated to avoid accumulation of error.
+     */
+    private static final int ROTATIONS_BEFORE_RESYNC = 64;
+
+    private int mRadius = -1;
+    private double mAnglePerItem = -1;
+
+    /**
+     * cos/sin of the angle step * slot index.
+     */
+    private double[] mSlotCos = new double[0];
+    private double[] mSlotSin = new double[0];
+
+    private int mAnchorPosition;
+    private double mAnchorAngle;
+    private double mAnchorCos;
+    private double mAnchorSin;
+    private int mRotationsCount;
+
+    /**
+     * Setup table for the radius and angle per item. Slots are recalculated only if values were changed.
+     *
+     * @param radius       radius of the menu
+     * @param anglePerItem angle in degrees that view item has per own diameter
+     */
+    public void setup(int radius, double anglePerItem) {
+        if (radius == mRadius && anglePerItem == mAnglePerItem) {
+            return;
+        }
+        mRadius = radius;
+        mAnglePerItem = anglePerItem;
+        int slotsCount = anglePerItem > 0 ? (int) Math.min(Math.ceil(360.0 / anglePerItem) + 1, MAX_SLOTS_COUNT) : 1;
+        if (mSlotCos.length != slotsCount) {
+            mSlotCos = new double[slotsCount];
+            mSlotSin = new double[slotsCount];
+        }
+        double stepRadians = Math.toRadians(anglePerItem);
+        for (int i = 0; i < slotsCount; i++) {
+            mSlotCos[i] = Math.cos(stepRadians * i);
+            mSlotSin[i] = Math.sin(stepRadians * i);
+        }
+    }
+
+    /**
+     * Set anchor item from which all other items angles are calculated.
+     *
+     * @param position position of the anchor item in adapter
+     * @param angle    angle of the anchor item in degrees
+     */
+    public void setAnchor(int position, double angle) {
+        mAnchorPosition = position;
+        mAnchorAngle = angle;
+        double radians = Math.toRadians(angle);
+        mAnchorCos = Math.cos(radians);
+        mAnchorSin = Math.sin(radians);
+        mRotationsCount = 0;
+    }
+
+    /**
+     * Rotate all items with angle. Only one cos/sin pair is calculated per call.
+     *
+     * @param angle angle in degrees
+     */
+    public void rotate(double angle) {
+        if (angle == 0) {
+            return;
+        }
+        mAnchorAngle += angle;
+        if (++mRotationsCount >= ROTATIONS_BEFORE_RESYNC) {
+            setAnchor(mAnchorPosition, mAnchorAngle);
+            return;
+        }
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double anchorCos = mAnchorCos * cos - mAnchorSin * sin;
+        mAnchorSin = mAnchorSin * cos + mAnchorCos * sin;
+        mAnchorCos = anchorCos;
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return angle of the item in degrees
+     */
+    public double getAngle(int position) {
+        return mAnchorAngle - (position - mAnchorPosition) * mAnglePerItem;
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return x distance of the item center from the menu corner
+     */
+    public double getX(int position) {
+        int slot = prepareSlot(position);
+        if (slot >= 0) {
+            return mRadius * (mAnchorCos * mSlotCos[slot] + mAnchorSin * mSlotSin[slot]);
+        }
+        return mRadius * (mAnchorCos * mSlotCos[-slot] - mAnchorSin * mSlotSin[-slot]);
+    }
+
+    /**
+     * @param position position of the item in adapter
+     * @return y distance of the item center from the menu corner
+     */
+    public double getY(int position) {
+        int slot = prepareSlot(position);
+        if (slot >= 0) {
+            return mRadius * (mAnchorSin * mSlotCos[slot] - mAnchorCos * mSlotSin[slot]);
+        }
+        return mRadius * (mAnchorSin * mSlotCos[-slot] + mAnchorCos * mSlotSin[-slot]);
+    }
+
+    /**
+     * Get slot index of the position relatively to the anchor. If position is out of the precomputed slots
+     * the anchor is moved to this position.
+     */
+    private int prepareSlot(int position) {
+        int slot = position - mAnchorPosition;
+        if (slot >= mSlotCos.length || -slot >= mSlotCos.length) {
+            setAnchor(position, getAngle(position));
+            return 0;
+        }
+        return slot;
+    }
+}
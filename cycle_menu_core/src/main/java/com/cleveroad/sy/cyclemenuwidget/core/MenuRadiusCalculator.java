@@ -0,0 +1,176 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+/**
+ * Calculates size of the items container of the menu from the available size, size of items and radius settings.
+ * If scaling is AUTO then size can be increased to the autoMaxRadius if there is a lot of items in menu
+ * or decreased to the autoMinRadius if the count of items is little.
+ * If scaling is FIXED then size will be set exactly to the fixedRadius, but not bigger than the available size.
+ */
+public class MenuRadiusCalculator {
+
+    /**
+     * Scaling coefficient that is used for increasing spaces between two items in lollipop
+     */
+    private static final double SCALING_COEFFICIENT = 1.3;
+
+    /**
+     * Indicates if FloatingActionButton is drawn with native elevation (lollipop and above).
+     */
+    private final boolean mLollipop;
+
+    /**
+     * Additional margin for items in preLollipop device.
+     * In preLollipop device FloatingActionButton has additional margins from the sides.
+     */
+    private final float mPreLollipopAdditionalButtonsMargin;
+
+    private boolean mFixedScaling = false;
+    private int mAutoMinRadius = 0;
+    private int mAutoMaxRadius = 0;
+    private int mFixedRadius = 0;
+
+    public MenuRadiusCalculator(boolean lollipop, float preLollipopAdditionalButtonsMargin) {
+        mLollipop = lollipop;
+        mPreLollipopAdditionalButtonsMargin = preLollipopAdditionalButtonsMargin;
+    }
+
+    public void setFixedScaling(boolean fixedScaling) {
+        mFixedScaling = fixedScaling;
+    }
+
+    public boolean isFixedScaling() {
+        return mFixedScaling;
+    }
+
+    public int getAutoMinRadius() {
+        return mAutoMinRadius;
+    }
+
+    public void setAutoMinRadius(int autoMinRadius) {
+        mAutoMinRadius = autoMinRadius;
+    }
+
+    public int getAutoMaxRadius() {
+        return mAutoMaxRadius;
+    }
+
+    public void setAutoMaxRadius(int autoMaxRadius) {
+        mAutoMaxRadius = autoMaxRadius;
+    }
+
+    public int getFixedRadius() {
+        return mFixedRadius;
+    }
+
+    public void setFixedRadius(int fixedRadius) {
+        mFixedRadius = fixedRadius;
+    }
+
+    /**
+     * Calculate size of the item with margins between items.
+     *
+     * @param measuredItemSize measured size of the floating action button
+     * @return size of the item that is used to calculate size of the menu
+     */
+    public int calculateItemSize(int measuredItemSize) {
+        if (measuredItemSize <= 0) {
+            return measuredItemSize;
+        }
+        return (int) getItemLengthWithMargins(measuredItemSize);
+    }
+
+    /**
+     * @param measuredItemSize measured size of the floating action button
+     * @return length of the arc that is taken by the item with margins between items
+     */
+    public double getItemLengthWithMargins(int measuredItemSize) {
+        if (mLollipop) {
+            return measuredItemSize * SCALING_COEFFICIENT;
+        }
+        //In preLollipop android floatingActionButton has additional margin.
+        return measuredItemSize - mPreLollipopAdditionalButtonsMargin * 2 / 1.5f;
+    }
+
+    /**
+     * @param measuredItemSize measured size of the floating action button
+     * @return length of the arc that is taken by the visible part of the item
+     */
+    public double getItemLength(int measuredItemSize) {
+        if (mLollipop) {
+            return measuredItemSize;
+        }
+        return measuredItemSize - mPreLollipopAdditionalButtonsMargin * 2;
+    }
+
+    /**
+     * @param measuredItemSize measured size of the floating action button
+     * @return half of the margin from the item side which is used to check if the end of the menu is reached
+     */
+    public int getHalfAdditionalMargin(int measuredItemSize) {
+        if (mLollipop) {
+            return (int) ((getItemLengthWithMargins(measuredItemSize) - measuredItemSize) / 2.0);
+        }
+        return 0;
+    }
+
+    /**
+     * Calculate radius of the arc on which centers of the items are placed.
+     *
+     * @param containerSize    min side of the items container
+     * @param measuredItemSize measured size of the floating action button
+     * @return radius of the arc
+     */
+    public int calculateArcRadius(int containerSize, int measuredItemSize) {
+        if (mLollipop) {
+            return containerSize - measuredItemSize * 4 / 5;
+        }
+        return containerSize - measuredItemSize / 2;
+    }
+
+    /**
+     * Calculate size of the items container. Auto min and max radiuses and fixed radius are adjusted
+     * to the available size.
+     *
+     * @param availableSize   available size for the items container
+     * @param itemSize        size of the item calculated with {@link #calculateItemSize(int)}
+     * @param circleMinRadius radius of the collapsed menu
+     * @param itemsCount      count of items in menu
+     * @return size of the items container
+     */
+    public int calculateRecyclerSize(int availableSize, int itemSize, int circleMinRadius, int itemsCount) {
+        int recyclerSize = availableSize;
+        if ((mFixedScaling || mAutoMaxRadius > recyclerSize || mAutoMaxRadius < 0) && recyclerSize > 0) {
+            mAutoMaxRadius = recyclerSize;
+        }
+        if (mAutoMinRadius < circleMinRadius + itemSize) {
+            mAutoMinRadius = circleMinRadius + itemSize;
+        }
+        if (mAutoMinRadius > mAutoMaxRadius) {
+            mAutoMinRadius = mAutoMaxRadius;
+        }
+        if (!mFixedScaling) {
+            recyclerSize = (int) (itemSize * itemsCount * 4 / (Math.PI * 2));
+            if (mLollipop) {
+                recyclerSize += itemSize * 5 / 8;
+            } else {
+                recyclerSize += itemSize * 7 / 8;
+            }
+            if (recyclerSize > mAutoMaxRadius) {
+                recyclerSize = mAutoMaxRadius;
+            }
+
+            if (recyclerSize < mAutoMinRadius) {
+                recyclerSize = mAutoMinRadius;
+            }
+        } else if (recyclerSize > 0) {
+            if (mFixedRadius > mAutoMaxRadius) {
+                mFixedRadius = mAutoMaxRadius;
+            }
+            if (mFixedRadius < mAutoMinRadius) {
+                mFixedRadius = mAutoMinRadius;
+            }
+            recyclerSize = mFixedRadius;
+        }
+        return recyclerSize;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AngularFlingTest {
+
+    private static final double DELTA = 1e-6;
+
+    @Test
+    public void getFlingRotation_keepsDirectionOfVelocity() {
+        AngularFling fling = new AngularFling(500);
+        assertEquals(100, fling.getFlingRotation(Math.sqrt(2 * 500 * 100)), DELTA);
+        assertEquals(-100, fling.getFlingRotation(-Math.sqrt(2 * 500 * 100)), DELTA);
+        assertEquals(0, fling.getFlingRotation(0), DELTA);
+    }
+
+    @Test
+    public void snapRotation_stopsItemOnNearestSlot() {
+        //slots are at 75 + k * 30
+        assertEquals(0, AngularFling.snapRotation(0, 75, 75, 30), DELTA);
+        assertEquals(-5, AngularFling.snapRotation(0, 80, 75, 30), DELTA);
+        assertEquals(48, AngularFling.snapRotation(62, 87, 75, 30), DELTA);
+        assertEquals(55, AngularFling.snapRotation(50, 80, 75, 30), DELTA);
+        assertEquals(-35, AngularFling.snapRotation(-40, 80, 75, 30), DELTA);
+    }
+
+    @Test
+    public void getDuration_matchesDecelerationFromVelocity() {
+        AngularFling fling = new AngularFling(500);
+        assertEquals(400, fling.getDuration(100, 500));
+        assertEquals(1500, fling.getDuration(1000, 10));
+        assertEquals(150, fling.getDuration(0.5, 0));
+    }
+}
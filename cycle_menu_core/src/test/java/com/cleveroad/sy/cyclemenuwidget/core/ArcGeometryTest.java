@@ -0,0 +1,84 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArcGeometryTest {
+
+    private static final double DELTA = 1e-6;
+    private static final int SIZE = 600;
+    private static final int ITEM_SIZE = 100;
+
+    private ArcGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mGeometry = new ArcGeometry(true, 0);
+        mGeometry.setCorner(true, true);
+        mGeometry.setSize(SIZE, SIZE);
+        mGeometry.initialize(ITEM_SIZE);
+    }
+
+    @Test
+    public void initialize_calculatesRadiusAndAnglePerItem() {
+        assertTrue(mGeometry.isInitialized());
+        assertEquals(SIZE - ITEM_SIZE * 4 / 5, mGeometry.getRadius());
+        double expectedAngle = 360.0 * ITEM_SIZE / (2 * Math.PI * mGeometry.getRadius()) * 1.3;
+        assertEquals(expectedAngle, mGeometry.getAnglePerItem(), DELTA);
+        mGeometry.invalidate();
+        assertFalse(mGeometry.isInitialized());
+    }
+
+    @Test
+    public void itemCenters_matchTrigonometryForAllCorners() {
+        boolean[][] corners = {{true, true}, {false, true}, {true, false}, {false, false}};
+        for (boolean[] corner : corners) {
+            mGeometry.setCorner(corner[0], corner[1]);
+            mGeometry.setAnchor(10, 80);
+            mGeometry.rotate(3.5);
+            mGeometry.rotate(-1.25);
+            for (int position = 0; position < 20; position++) {
+                double radians = Math.toRadians(mGeometry.getAngle(position));
+                double x = mGeometry.getRadius() * Math.cos(radians);
+                double y = mGeometry.getRadius() * Math.sin(radians);
+                assertEquals(corner[0] ? x : SIZE - x, mGeometry.getCenterX(position), DELTA);
+                assertEquals(corner[1] ? y : SIZE - y, mGeometry.getCenterY(position), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void rotate_doesNotDriftAfterManySteps() {
+        mGeometry.setAnchor(0, 90);
+        for (int i = 0; i < 10000; i++) {
+            mGeometry.rotate(0.37);
+            mGeometry.rotate(-0.37);
+        }
+        assertEquals(mGeometry.getRadius(), mGeometry.getCenterY(0), DELTA);
+        assertEquals(0, mGeometry.getCenterX(0), DELTA);
+    }
+
+    @Test
+    public void checkEndsReached_scrollsFreelyBetweenEnds() {
+        assertEquals(-15, mGeometry.checkEndsReached(15, 3, 0, 0, 8, 0, 0, 20));
+        assertEquals(15, mGeometry.checkEndsReached(-15, 3, 0, 0, 8, 0, 0, 20));
+        assertEquals(0, mGeometry.checkEndsReached(0, 3, 0, 0, 8, 0, 0, 20));
+    }
+
+    @Test
+    public void checkEndsReached_clampsAtFirstAndLastItems() {
+        int halfMargin = (int) ((ITEM_SIZE * 1.3 - ITEM_SIZE) / 2.0);
+        //first item left bound is already at the margin, nothing to scroll
+        assertEquals(0, mGeometry.checkEndsReached(40, 0, halfMargin, halfMargin + ITEM_SIZE, 5, 0, 0, 6));
+        //last item top is 10px above the margin, only 10px can be scrolled
+        assertEquals(10, mGeometry.checkEndsReached(-40, 0, 0, 0, 5, halfMargin - 10, 0, 6));
+
+        mGeometry.setCorner(false, false);
+        assertEquals(-5, mGeometry.checkEndsReached(40, 0, 0, SIZE - halfMargin + 5, 5, 0, 0, 6));
+        assertEquals(7, mGeometry.checkEndsReached(-40, 0, 0, 0, 5, 0, SIZE - halfMargin + 7, 6));
+    }
+}
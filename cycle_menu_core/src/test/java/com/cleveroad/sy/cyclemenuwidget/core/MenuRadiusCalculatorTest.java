@@ -0,0 +1,61 @@
+package com.cleveroad.sy.cyclemenuwidget.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MenuRadiusCalculatorTest {
+
+    private static final double DELTA = 1e-6;
+    private static final int ITEM_SIZE = 100;
+    private static final float PRE_LOLLIPOP_MARGIN = 15;
+
+    @Test
+    public void itemSize_includesMarginsBetweenItems() {
+        MenuRadiusCalculator lollipop = new MenuRadiusCalculator(true, PRE_LOLLIPOP_MARGIN);
+        assertEquals(130, lollipop.calculateItemSize(ITEM_SIZE));
+        assertEquals(15, lollipop.getHalfAdditionalMargin(ITEM_SIZE));
+        assertEquals(ITEM_SIZE, lollipop.getItemLength(ITEM_SIZE), DELTA);
+
+        MenuRadiusCalculator preLollipop = new MenuRadiusCalculator(false, PRE_LOLLIPOP_MARGIN);
+        assertEquals(80, preLollipop.calculateItemSize(ITEM_SIZE));
+        assertEquals(0, preLollipop.getHalfAdditionalMargin(ITEM_SIZE));
+        assertEquals(70, preLollipop.getItemLength(ITEM_SIZE), DELTA);
+        assertEquals(0, preLollipop.calculateItemSize(0));
+    }
+
+    @Test
+    public void arcRadius_leavesSpaceForItems() {
+        assertEquals(520, new MenuRadiusCalculator(true, 0).calculateArcRadius(600, ITEM_SIZE));
+        assertEquals(550, new MenuRadiusCalculator(false, 0).calculateArcRadius(600, ITEM_SIZE));
+    }
+
+    @Test
+    public void autoScaling_fitsItemsBetweenMinAndMaxRadius() {
+        MenuRadiusCalculator calculator = new MenuRadiusCalculator(true, 0);
+        calculator.setAutoMinRadius(200);
+        calculator.setAutoMaxRadius(400);
+        int itemSize = calculator.calculateItemSize(ITEM_SIZE);
+
+        //few items are placed on the min radius
+        assertEquals(200, calculator.calculateRecyclerSize(600, itemSize, 50, 1));
+        //size grows with the count of items
+        int expected = (int) (itemSize * 3 * 4 / (Math.PI * 2)) + itemSize * 5 / 8;
+        assertEquals(expected, calculator.calculateRecyclerSize(600, itemSize, 50, 3));
+        //a lot of items are placed on the max radius
+        assertEquals(400, calculator.calculateRecyclerSize(600, itemSize, 50, 100));
+        //max radius is reduced to the available size
+        assertEquals(300, calculator.calculateRecyclerSize(300, itemSize, 50, 100));
+    }
+
+    @Test
+    public void fixedScaling_usesFixedRadiusWithinAvailableSize() {
+        MenuRadiusCalculator calculator = new MenuRadiusCalculator(true, 0);
+        calculator.setFixedScaling(true);
+        calculator.setFixedRadius(250);
+        assertEquals(250, calculator.calculateRecyclerSize(600, 130, 50, 1));
+
+        calculator.setFixedRadius(1000);
+        assertEquals(300, calculator.calculateRecyclerSize(300, 130, 50, 1));
+    }
+}
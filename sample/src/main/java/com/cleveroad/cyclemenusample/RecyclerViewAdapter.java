@@ -20,18 +20,23 @@ import java.util.Arrays;
 public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapter.ItemHolder> implements OnItemCycleMenuStateChangedListener, StateSaver {
 
     private static final int COUNT = 20;
+    private static final int MENU_ITEMS_PREWARM_COUNT = 12;
 
     private Context mContext;
     private boolean[] mMenuStatesOpen = {true, true, false, true, false, true, false, true, false, true, true, true, false, true, false, true, false, true, false, true,};
 
     private int[] mPositions = new int[COUNT];
     private double[] mAngles = new double[COUNT];
-
+    /**
+     * Item views of the menus are shared by all rows of the list.
+     */
+    private RecyclerView.RecycledViewPool mMenuItemsPool;
 
     RecyclerViewAdapter(Context context) {
         mContext = context;
         Arrays.fill(mAngles, CycleMenuWidget.UNDEFINED_ANGLE_VALUE);
         Arrays.fill(mPositions, RecyclerView.NO_POSITION);
+        mMenuItemsPool = CycleMenuWidget.createRecycledViewPool(context, MENU_ITEMS_PREWARM_COUNT);
     }
 
     @Override
@@ -42,9 +47,10 @@ public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapte
     @Override
     public ItemHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         View view;
+        CycleMenuWidget cycleMenuWidget;
         if (viewType != 4) {
             view = LayoutInflater.from(mContext).inflate(R.layout.item_example, parent, false);
-            CycleMenuWidget cycleMenuWidget = (CycleMenuWidget) view.findViewById(R.id.itemCycleMenuWidget);
+            cycleMenuWidget = (CycleMenuWidget) view.findViewById(R.id.itemCycleMenuWidget);
             switch (viewType) {
                 case 0:
                     cycleMenuWidget.setMenuRes(R.menu.cycle_menu_22);
@@ -65,7 +71,7 @@ public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapte
         } else {
             view = LayoutInflater.from(mContext).inflate(R.layout.item_example_2, parent, false);
             RelativeLayout layout = (RelativeLayout) view;
-            CycleMenuWidget cycleMenuWidget = new CycleMenuWidget(mContext);
+            cycleMenuWidget = new CycleMenuWidget(mContext);
             cycleMenuWidget.setLayoutParams(new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
             cycleMenuWidget.setId(R.id.itemCycleMenuWidget);
             cycleMenuWidget.setMenuRes(R.menu.cycle_menu_22);
@@ -73,6 +79,7 @@ public class RecyclerViewAdapter extends RecyclerView.Adapter<RecyclerViewAdapte
             cycleMenuWidget.setRippleColor(Color.argb(100, 200, 100, 100));
             layout.addView(cycleMenuWidget);
         }
+        cycleMenuWidget.setRecycledViewPool(mMenuItemsPool);
         return new ItemHolder(view, this, this);
     }
 